@@ -17,6 +17,7 @@ public enum Command {
   CHECK_TRANSITIVITY(0, "Check transitivity of the graph"),
   CHECK_ANTISYMMETRY(0, "Check anti-symmetry of the graph"),
   CHECK_EQUIVALENCE(0, "Check equivalence of the graph"),
+  ANALYZE(0, "Check every property of the graph together in a single pass"),
   COMPUTE_EQUIVALENCE(1, "Compute equivalence class for a vertex in loaded file <VERTEX>"),
 
   GRAPH_SEARCH_IBFS(
@@ -24,6 +25,10 @@ public enum Command {
   GRAPH_SEARCH_IDFS(
       0, "Perform a depth-first search on the current loaded file, and display the DFS order"),
 
+  GRAPH_SEARCH_DOBFS(
+      0,
+      "Perform a direction-optimising breadth-first search on the current loaded file, and"
+          + " display each level in order"),
   GRAPH_SEARCH_RBFS(
       0,
       "Perform a recursive breadth-first search on the current loaded file, and display the BFS"
@@ -32,6 +37,9 @@ public enum Command {
       0,
       "Perform a recursive depth-first search on the current loaded file, and display the DFS"
           + " order"),
+  FIND_PATH(2, "Find a shortest path from <SOURCE> to <DESTINATION> in the current loaded file"),
+  COMPUTE_CLOSURE(0, "Count the edges in the transitive closure of the current loaded file"),
+  EXPORT_CLOSURE(1, "Write the transitive closure of the current loaded file to <FILENAME>"),
 
   HELP(0, "Print usage"),
   EXIT(0, "Exit the application");
@@ -5,13 +5,21 @@ import com.paypal.digraph.parser.GraphNode;
 import com.paypal.digraph.parser.GraphParser;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import nz.ac.auckland.se281.datastructures.Edge;
 import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphProperties;
+import nz.ac.auckland.se281.datastructures.GraphSnapshot;
 
 /**
  * The calculator that reports properties of graphs to the user.
@@ -58,6 +66,16 @@ public class GraphCalculator {
     graph = new Graph<>(verticies, edges);
   }
 
+  /**
+   * Takes an immutable snapshot of the loaded graph, which can be searched and queried by many
+   * threads at once.
+   *
+   * @return A snapshot of the graph.
+   */
+  public GraphSnapshot<String> snapshot() {
+    return graph.snapshot();
+  }
+
   /** Prints the filename of the test case that is loaded. */
   public void printInfo() {
     MessageCli.INFO.printMessage(TESTCASES.relativize(file).toString());
@@ -91,9 +109,17 @@ public class GraphCalculator {
     System.out.println(graph.getRoots());
   }
 
-  /** Prints if the set of verticies in the graph exhibit the reflexivity property. */
+  /**
+   * Prints if the set of verticies in the graph exhibit the reflexivity property, and which
+   * verticies are missing a self loop if it does not.
+   */
   public void printReflexitivity() {
-    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(graph.isReflexive()));
+    final boolean reflexive = graph.isReflexive();
+    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(reflexive));
+
+    if (!reflexive) {
+      MessageCli.MISSING_SELF_LOOPS.printMessage(graph.getVerticiesWithoutSelfLoop().toString());
+    }
   }
 
   /** Prints if the set of edges in the graph exhibit the symmetric property. */
@@ -116,6 +142,16 @@ public class GraphCalculator {
     MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(graph.isEquivalence()));
   }
 
+  /** Prints every relation property of the graph, computed together in a single pass. */
+  public void printAnalysis() {
+    final GraphProperties properties = graph.analyze();
+    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(properties.isReflexive()));
+    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(properties.isSymmetric()));
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(properties.isAntiSymmetric()));
+    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(properties.isTransitive()));
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(properties.isEquivalence()));
+  }
+
   /**
    * Prints the verticies in the equivalence class of the given vertex.
    *
@@ -129,22 +165,79 @@ public class GraphCalculator {
 
   /** Prints the search order of an iterative breadth first search. */
   public void printIterativeBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeBreadthFirstSearch().toArray()));
+    System.out.println(graph.iterativeBreadthFirstSearch());
   }
 
   /** Prints the search order of an iterative depth first search. */
   public void printDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeDepthFirstSearch().toArray()));
+    System.out.println(graph.iterativeDepthFirstSearch());
+  }
+
+  /** Prints the search order of a direction optimising breadth first search. */
+  public void printDirectionOptimizingSearch() {
+    System.out.println(graph.directionOptimizingSearch());
   }
 
   /** Prints the search order of a recursive breadth first search. */
   public void printRecursiveBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveBreadthFirstSearch().toArray()));
+    System.out.println(graph.recursiveBreadthFirstSearch());
   }
 
   /** Prints the search order of a recursive depth first search. */
   public void printRecursiveDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveDepthFirstSearch().toArray()));
+    System.out.println(graph.recursiveDepthFirstSearch());
+  }
+
+  /**
+   * Prints a shortest path from one vertex to another, or that there is no such path.
+   *
+   * @param source The vertex the path starts at.
+   * @param destination The vertex the path ends at.
+   */
+  public void printPath(final String source, final String destination) {
+    final List<String> path = graph.findPath(source, destination);
+
+    if (path.isEmpty()) {
+      MessageCli.NO_PATH.printMessage(source, destination);
+    } else {
+      System.out.println(path);
+    }
+  }
+
+  /** Prints the number of edges in the transitive closure of the graph. */
+  public void printClosureSize() {
+    MessageCli.CLOSURE_SIZE.printMessage(String.valueOf(graph.getTransitiveClosureSize()));
+  }
+
+  /**
+   * Writes the transitive closure of the graph to a new file in the test cases folder, which can
+   * then be opened like any other test case. A name that leads outside the folder, or to a file
+   * that already exists, is rejected so no other file can be overwritten.
+   *
+   * @param filename The name of the file to write.
+   */
+  public void exportClosure(final String filename) {
+    final Path output;
+    try {
+      output = TESTCASES.resolve(filename).normalize();
+    } catch (InvalidPathException e) {
+      MessageCli.CLOSURE_NOT_EXPORTED.printMessage(filename);
+      return;
+    }
+
+    // We will only write below the test cases folder, since normalizing has removed any ".."
+    if (!output.startsWith(TESTCASES) || output.equals(TESTCASES)) {
+      MessageCli.CLOSURE_NOT_EXPORTED.printMessage(filename);
+      return;
+    }
+
+    try (Writer writer = Files.newBufferedWriter(output, StandardOpenOption.CREATE_NEW)) {
+      graph.writeTransitiveClosure(writer);
+      MessageCli.CLOSURE_EXPORTED.printMessage(filename);
+    } catch (IOException e) {
+      // This includes the file already existing
+      MessageCli.CLOSURE_NOT_EXPORTED.printMessage(filename);
+    }
   }
 
   /**
@@ -147,6 +147,9 @@ public class Main {
       case CHECK_EQUIVALENCE:
         calculator.printEquivalence();
         break;
+      case ANALYZE:
+        calculator.printAnalysis();
+        break;
       case COMPUTE_EQUIVALENCE:
         calculator.printEquivalenceClass(args[1]);
         break;
@@ -156,12 +159,24 @@ public class Main {
       case GRAPH_SEARCH_IDFS:
         calculator.printDepthFirstSearch();
         break;
+      case GRAPH_SEARCH_DOBFS:
+        calculator.printDirectionOptimizingSearch();
+        break;
       case GRAPH_SEARCH_RBFS:
         calculator.printRecursiveBreadthFirstSearch();
         break;
       case GRAPH_SEARCH_RDFS:
         calculator.printRecursiveDepthFirstSearch();
         break;
+      case FIND_PATH:
+        calculator.printPath(args[1], args[2]);
+        break;
+      case COMPUTE_CLOSURE:
+        calculator.printClosureSize();
+        break;
+      case EXPORT_CLOSURE:
+        calculator.exportClosure(args[1]);
+        break;
       case EXIT:
         MessageCli.END.printMessage();
 
@@ -18,10 +18,15 @@ public enum MessageCli {
   INFO("File name: %s"),
 
   GRAPH_REFLEXIVE("The graph is %sreflexive"),
+  MISSING_SELF_LOOPS("Verticies without a self loop: %s"),
   GRAPH_SYMMETRIC("The graph is %ssymmetric"),
   GRAPH_ANTI_SYMMETRIC("The graph is %santisymmetric"),
   GRAPH_EQUIVALENCE("The graph is %san equivalence relation"),
   GRAPH_TRANSITIVE("The graph is %stransitive"),
+  NO_PATH("There is no path from %s to %s"),
+  CLOSURE_SIZE("The transitive closure has %s edges"),
+  CLOSURE_EXPORTED("Wrote the transitive closure to %s"),
+  CLOSURE_NOT_EXPORTED("Error: could not write the transitive closure to '%s'"),
 
   END("You closed the terminal. Goodbye.");
 
@@ -0,0 +1,75 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * Helper functions for bitmaps over vertex ids. A bitmap is a plain <code>long[]</code> where bit
+ * <code>id % 64</code> of word <code>id / 64</code> is set when the vertex is in the set, so 64
+ * verticies share each word.
+ */
+final class Bitmaps {
+
+  private Bitmaps() {}
+
+  /**
+   * Creates an empty bitmap that can hold the given number of verticies.
+   *
+   * @param size The number of verticies.
+   * @return A bitmap with every bit clear.
+   */
+  static long[] create(int size) {
+    return new long[(size + 63) >>> 6];
+  }
+
+  /**
+   * Checks if the bit of a vertex is set.
+   *
+   * @param bitmap The bitmap.
+   * @param id The vertex id.
+   * @return <code> true </code> if the bit is set, <code> false </code> otherwise.
+   */
+  static boolean get(long[] bitmap, int id) {
+    return (bitmap[id >>> 6] & (1L << id)) != 0;
+  }
+
+  /**
+   * Sets the bit of a vertex.
+   *
+   * @param bitmap The bitmap.
+   * @param id The vertex id.
+   */
+  static void set(long[] bitmap, int id) {
+    bitmap[id >>> 6] |= 1L << id;
+  }
+
+  /**
+   * Clears the bit of a vertex.
+   *
+   * @param bitmap The bitmap.
+   * @param id The vertex id.
+   */
+  static void clear(long[] bitmap, int id) {
+    bitmap[id >>> 6] &= ~(1L << id);
+  }
+
+  /**
+   * Checks if the bit of a vertex is set, in a bitmap that starts part way through an array.
+   *
+   * @param bitmaps The array holding the bitmap.
+   * @param offset The index of the first word of the bitmap.
+   * @param id The vertex id.
+   * @return <code> true </code> if the bit is set, <code> false </code> otherwise.
+   */
+  static boolean get(long[] bitmaps, int offset, int id) {
+    return (bitmaps[offset + (id >>> 6)] & (1L << id)) != 0;
+  }
+
+  /**
+   * Sets the bit of a vertex, in a bitmap that starts part way through an array.
+   *
+   * @param bitmaps The array holding the bitmap.
+   * @param offset The index of the first word of the bitmap.
+   * @param id The vertex id.
+   */
+  static void set(long[] bitmaps, int offset, int id) {
+    bitmaps[offset + (id >>> 6)] |= 1L << id;
+  }
+}
@@ -0,0 +1,131 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A chunk node is a part of an unrolled linked list. Instead of a single item, it stores a small
+ * array of items along with references to the next chunk and the previous chunk.
+ *
+ * @param <T> The type of data to store in the chunk.
+ */
+class ChunkNode<T> {
+  static final int CAPACITY = 16;
+
+  private final Object[] items = new Object[CAPACITY];
+  private int count = 0;
+  private ChunkNode<T> next;
+  private ChunkNode<T> previous;
+
+  /**
+   * Get the item at a position in the chunk.
+   *
+   * @param index The position in the chunk.
+   * @return The item at that position.
+   */
+  @SuppressWarnings("unchecked")
+  T get(int index) {
+    return (T) items[index];
+  }
+
+  /**
+   * Insert an item at a position in the chunk, shifting the later items along. The chunk must not
+   * be full.
+   *
+   * @param index The position to insert at.
+   * @param data The item to insert.
+   */
+  void insert(int index, T data) {
+    System.arraycopy(items, index, items, index + 1, count - index);
+    items[index] = data;
+    count++;
+  }
+
+  /**
+   * Remove the item at a position in the chunk, shifting the later items back.
+   *
+   * @param index The position to remove.
+   */
+  void remove(int index) {
+    System.arraycopy(items, index + 1, items, index, count - index - 1);
+    items[--count] = null;
+  }
+
+  /**
+   * Move every item from a position onwards to the end of another chunk. The other chunk must have
+   * room for them.
+   *
+   * @param index The position of the first item to move.
+   * @param other The chunk to move the items to.
+   */
+  void moveTo(int index, ChunkNode<T> other) {
+    int moved = count - index;
+    System.arraycopy(items, index, other.items, other.count, moved);
+    for (int i = index; i < count; i++) {
+      items[i] = null;
+    }
+    other.count += moved;
+    count = index;
+  }
+
+  /** Remove every item and link from the chunk, so it can be used again. */
+  void reset() {
+    for (int i = 0; i < count; i++) {
+      items[i] = null;
+    }
+    count = 0;
+    next = null;
+    previous = null;
+  }
+
+  /**
+   * Get the number of items in the chunk.
+   *
+   * @return The number of items.
+   */
+  int getCount() {
+    return count;
+  }
+
+  /**
+   * Check if the chunk has no room left.
+   *
+   * @return <code>true</code> if the chunk is full, <code>false</code> otherwise.
+   */
+  boolean isFull() {
+    return count == CAPACITY;
+  }
+
+  /**
+   * Get the next chunk in the list.
+   *
+   * @return The next chunk in the list.
+   */
+  ChunkNode<T> getNext() {
+    return next;
+  }
+
+  /**
+   * Set the next chunk in the list.
+   *
+   * @param next The next chunk in the list.
+   */
+  void setNext(ChunkNode<T> next) {
+    this.next = next;
+  }
+
+  /**
+   * Get the previous chunk in the list.
+   *
+   * @return The previous chunk in the list.
+   */
+  ChunkNode<T> getPrev() {
+    return previous;
+  }
+
+  /**
+   * Set the previous chunk in the list.
+   *
+   * @param prev The previous chunk in the list.
+   */
+  void setPrev(ChunkNode<T> prev) {
+    this.previous = prev;
+  }
+}
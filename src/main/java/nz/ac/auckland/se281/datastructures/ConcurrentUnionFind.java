@@ -0,0 +1,83 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock free union-find that any number of threads can use at once. The parent of every id is
+ * held in an {@link AtomicIntegerArray}, and sets are joined by swapping in a new parent with a
+ * compare and set, which is retried if another thread changed that root first.
+ *
+ * <p>A root is always hung under the smaller of the two roots, so a parent is never larger than its
+ * child. This means the links can never form a cycle however the threads interleave, and the root
+ * of every set is its smallest id. Lookups use path halving: every id on the path is pointed at its
+ * grandparent with a compare and set, which only ever moves it closer to the root, so a failed swap
+ * can simply be ignored.
+ */
+public class ConcurrentUnionFind implements DisjointSets {
+  private final AtomicIntegerArray parent;
+
+  /**
+   * Creates a union-find where every id starts in a set of its own.
+   *
+   * @param size The number of ids.
+   */
+  public ConcurrentUnionFind(int size) {
+    parent = new AtomicIntegerArray(size);
+    for (int id = 0; id < size; id++) {
+      parent.set(id, id);
+    }
+  }
+
+  /**
+   * Finds the representative of the set that contains an id, which is the smallest id in the set.
+   *
+   * @param id The id to look up.
+   * @return The representative id of its set.
+   */
+  @Override
+  public int find(int id) {
+    while (true) {
+      int next = parent.get(id);
+      if (next == id) {
+        return id;
+      }
+      int grandparent = parent.get(next);
+      if (grandparent == next) {
+        return next;
+      }
+      // Skip a level of the path for the next lookup, then carry on from the grandparent
+      parent.compareAndSet(id, next, grandparent);
+      id = grandparent;
+    }
+  }
+
+  /**
+   * Joins the sets that contain two ids, hanging the larger root under the smaller one.
+   *
+   * @param first The first id.
+   * @param second The second id.
+   * @return <code> true </code> if this call joined the sets, <code> false </code> if they were
+   *     already the same set.
+   */
+  @Override
+  public boolean union(int first, int second) {
+    while (true) {
+      int firstRoot = find(first);
+      int secondRoot = find(second);
+      if (firstRoot == secondRoot) {
+        return false;
+      }
+      int smaller = Math.min(firstRoot, secondRoot);
+      int larger = Math.max(firstRoot, secondRoot);
+      // This only succeeds if the larger root is still a root, otherwise we look both up again
+      if (parent.compareAndSet(larger, larger, smaller)) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return parent.length();
+  }
+}
@@ -0,0 +1,1047 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A compressed sparse row (CSR) graph engine. Every vertex label is mapped once to a dense
+ * <code>int</code> id, and the out-edges and in-edges are stored as flat offset and target arrays,
+ * so the edges of vertex <code>u</code> sit at <code>targets[offsets[u]]</code> up to <code>
+ * targets[offsets[u + 1]]</code>. All of the graph algorithms run on the ids, and {@link Graph}
+ * translates between labels and ids.
+ *
+ * <p>Ids are given out in the order of the graph's vertex comparator, so comparing two ids is the
+ * same as comparing their labels. The out-edges keep the order of the graph's edge set, which is
+ * the order the breadth first searches enqueue children in. A second copy of the out-edges with
+ * every row sorted by id is kept for the depth first searches and for edge lookups, and the
+ * in-edges are sorted by id too.
+ *
+ * <p>The CSR arrays are held in {@link IntStore}s created by a {@link GraphStorage}, so they can
+ * live on the heap or in memory mapped files. They are filled in place with a counting sort over
+ * two passes of the edges, one to count the degree of every vertex and one to write each edge into
+ * its row, so no array of edges is ever built on the heap.
+ *
+ * @param <T> The type of each vertex label.
+ */
+class CsrGraph<T> {
+  private final List<T> labels;
+  private final Map<T, Integer> ids;
+  private final IntStore outOffsets;
+  private final IntStore outTargets;
+  private final IntStore sortedOutTargets;
+  private final IntStore inOffsets;
+  private final IntStore inSources;
+  private final long[] selfLoops;
+  private final int selfLoopCount;
+  private final LongHashSet edgeSet;
+
+  /**
+   * Builds the CSR arrays of a graph. The verticies, along with any vertex that only appears in an
+   * edge, are sorted once with the given comparator and numbered in that order.
+   *
+   * @param verticies The verticies of the graph.
+   * @param edges The edges of the graph, which are read three times.
+   * @param ordering The comparator that decides the order of the verticies.
+   * @param storage Where to keep the CSR arrays.
+   */
+  CsrGraph(
+      Collection<T> verticies,
+      Collection<Edge<T>> edges,
+      Comparator<? super T> ordering,
+      GraphStorage storage) {
+    Set<T> allVerticies = new LinkedHashSet<>(verticies);
+    for (Edge<T> edge : edges) {
+      allVerticies.add(edge.getSource());
+      allVerticies.add(edge.getDestination());
+    }
+    labels = new ArrayList<>(allVerticies);
+    labels.sort(ordering);
+    ids = new HashMap<>();
+    for (int id = 0; id < labels.size(); id++) {
+      ids.put(labels.get(id), id);
+    }
+
+    // The first pass counts the degrees, and records the self loops in a bitmap as it goes, so
+    // reflexivity is just a count comparison
+    int[] outCursor = new int[labels.size() + 1];
+    int[] inCursor = new int[labels.size() + 1];
+    long[] loops = Bitmaps.create(labels.size());
+    int loopCount = 0;
+    int edgeCount = 0;
+    for (Edge<T> edge : edges) {
+      int source = ids.get(edge.getSource());
+      int destination = ids.get(edge.getDestination());
+      outCursor[source + 1]++;
+      inCursor[destination + 1]++;
+      if (source == destination && !Bitmaps.get(loops, source)) {
+        Bitmaps.set(loops, source);
+        loopCount++;
+      }
+      edgeCount++;
+    }
+    selfLoops = loops;
+    selfLoopCount = loopCount;
+    outOffsets = storeOffsets(outCursor, storage);
+    inOffsets = storeOffsets(inCursor, storage);
+
+    // The second pass writes each edge at the next free place in its rows. The counting sort is
+    // stable, so each out-row keeps the order its edges had in the edge set. Each edge is also
+    // packed into the edge set, which answers the membership tests of the checks
+    outTargets = storage.allocate(edgeCount);
+    inSources = storage.allocate(edgeCount);
+    edgeSet = storage.isOffHeap() ? null : new LongHashSet(edgeCount);
+    for (Edge<T> edge : edges) {
+      int source = ids.get(edge.getSource());
+      int destination = ids.get(edge.getDestination());
+      outTargets.set(outCursor[source]++, destination);
+      inSources.set(inCursor[destination]++, source);
+      if (edgeSet != null) {
+        edgeSet.add(LongHashSet.pack(source, destination));
+      }
+    }
+
+    sortedOutTargets = storage.allocate(edgeCount);
+    sortRows(outOffsets, outTargets, sortedOutTargets);
+    sortRows(inOffsets, inSources, inSources);
+  }
+
+  /**
+   * Turns the degree counts of one direction into row offsets, and stores them. The counts are
+   * then left as the start of each row, ready to be used as cursors while the rows are filled.
+   *
+   * @param counts The degree of each vertex, shifted up by one place so the first entry is zero.
+   * @param storage Where to keep the offsets.
+   * @return The store holding the offsets.
+   */
+  private static IntStore storeOffsets(int[] counts, GraphStorage storage) {
+    for (int i = 1; i < counts.length; i++) {
+      counts[i] += counts[i - 1];
+    }
+    IntStore offsets = storage.allocate(counts.length);
+    offsets.copyFrom(counts, 0, 0, counts.length);
+    return offsets;
+  }
+
+  /**
+   * Sorts every row of a CSR targets array by id. The rows are copied through a buffer on the heap
+   * one at a time, so the source and the result can be the same store.
+   *
+   * @param offsets The offsets of the rows.
+   * @param from The targets to sort.
+   * @param to The store to write the sorted rows to.
+   */
+  private static void sortRows(IntStore offsets, IntStore from, IntStore to) {
+    int[] row = new int[0];
+    for (int vertex = 0; vertex + 1 < offsets.length(); vertex++) {
+      int start = offsets.get(vertex);
+      int degree = offsets.get(vertex + 1) - start;
+      if (row.length < degree) {
+        row = new int[degree];
+      }
+      from.copyTo(start, row, 0, degree);
+      Arrays.sort(row, 0, degree);
+      to.copyFrom(row, 0, start, degree);
+    }
+  }
+
+  /**
+   * Gets the edges of the graph, followed by some added edges, without copying them. The edges are
+   * read from the out-rows each time they are iterated, so a new graph can be built from them.
+   *
+   * @param added The edges to add after the edges of the graph.
+   * @return The edges.
+   */
+  Collection<Edge<T>> edgesWith(Collection<Edge<T>> added) {
+    return new AbstractCollection<Edge<T>>() {
+      @Override
+      public Iterator<Edge<T>> iterator() {
+        return new Iterator<Edge<T>>() {
+          private final Iterator<Edge<T>> addedEdges = added.iterator();
+          private int source = 0;
+          private int index = 0;
+
+          @Override
+          public boolean hasNext() {
+            return index < edgeCount() || addedEdges.hasNext();
+          }
+
+          @Override
+          public Edge<T> next() {
+            if (index == edgeCount()) {
+              return addedEdges.next();
+            }
+            while (index == outOffsets.get(source + 1)) {
+              source++;
+            }
+            return new Edge<>(labels.get(source), labels.get(outTargets.get(index++)));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return edgeCount() + added.size();
+      }
+    };
+  }
+
+  /**
+   * Gets the labels of every vertex, in order of id.
+   *
+   * @return A read only list of the labels.
+   */
+  List<T> labels() {
+    return Collections.unmodifiableList(labels);
+  }
+
+  /**
+   * Gets the number of verticies in the graph.
+   *
+   * @return The number of verticies.
+   */
+  int vertexCount() {
+    return labels.size();
+  }
+
+  /**
+   * Gets the number of edges in the graph.
+   *
+   * @return The number of edges.
+   */
+  int edgeCount() {
+    return outTargets.length();
+  }
+
+  /**
+   * Gets the id of a vertex label.
+   *
+   * @param vertex The vertex label.
+   * @return The id of the vertex, or -1 if it is not in the graph.
+   */
+  int idOf(T vertex) {
+    Integer id = ids.get(vertex);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Gets the label of a vertex id.
+   *
+   * @param id The vertex id.
+   * @return The label of the vertex.
+   */
+  T labelOf(int id) {
+    return labels.get(id);
+  }
+
+  /**
+   * Gets the labels of several vertex ids.
+   *
+   * @param vertexIds The vertex ids.
+   * @return A list of the labels, in the same order as the ids.
+   */
+  List<T> labelsOf(int[] vertexIds) {
+    List<T> result = new ArrayList<>(vertexIds.length);
+    for (int id : vertexIds) {
+      result.add(labels.get(id));
+    }
+    return result;
+  }
+
+  /**
+   * Gets the labels of the ids produced by an iterator, looking each one up only when it is asked
+   * for.
+   *
+   * @param vertexIds The iterator of vertex ids.
+   * @return An iterator of the labels, in the same order as the ids.
+   */
+  Iterator<T> labelsOf(PrimitiveIterator.OfInt vertexIds) {
+    return new Iterator<T>() {
+      @Override
+      public boolean hasNext() {
+        return vertexIds.hasNext();
+      }
+
+      @Override
+      public T next() {
+        return labels.get(vertexIds.nextInt());
+      }
+    };
+  }
+
+  /**
+   * Wraps a search iterator in a sequential stream. Each vertex appears at most once and in search
+   * order, so the stream is ordered, distinct and non-null.
+   *
+   * @param <T> The type of each vertex label.
+   * @param iterator The search iterator.
+   * @return A stream over the same verticies.
+   */
+  static <T> Stream<T> streamOf(Iterator<T> iterator) {
+    int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, characteristics), false);
+  }
+
+  /**
+   * Gets the index of the first out-edge of a vertex.
+   *
+   * @param vertex The vertex id.
+   * @return The index of its first out-edge.
+   */
+  int outStart(int vertex) {
+    return outOffsets.get(vertex);
+  }
+
+  /**
+   * Gets the index one past the last out-edge of a vertex.
+   *
+   * @param vertex The vertex id.
+   * @return The index one past its last out-edge.
+   */
+  int outEnd(int vertex) {
+    return outOffsets.get(vertex + 1);
+  }
+
+  /**
+   * Gets the destination of an out-edge.
+   *
+   * @param index The index of the out-edge.
+   * @return The id of its destination.
+   */
+  int outTarget(int index) {
+    return outTargets.get(index);
+  }
+
+  /**
+   * Gets the index of the first in-edge of a vertex.
+   *
+   * @param vertex The vertex id.
+   * @return The index of its first in-edge.
+   */
+  int inStart(int vertex) {
+    return inOffsets.get(vertex);
+  }
+
+  /**
+   * Gets the index one past the last in-edge of a vertex.
+   *
+   * @param vertex The vertex id.
+   * @return The index one past its last in-edge.
+   */
+  int inEnd(int vertex) {
+    return inOffsets.get(vertex + 1);
+  }
+
+  /**
+   * Gets the source of an in-edge.
+   *
+   * @param index The index of the in-edge.
+   * @return The id of its source.
+   */
+  int inSource(int index) {
+    return inSources.get(index);
+  }
+
+  /**
+   * Gets the number of edges leaving a vertex.
+   *
+   * @param vertex The vertex id.
+   * @return The out-degree of the vertex.
+   */
+  int outDegree(int vertex) {
+    return outOffsets.get(vertex + 1) - outOffsets.get(vertex);
+  }
+
+  /**
+   * Gets the number of edges entering a vertex.
+   *
+   * @param vertex The vertex id.
+   * @return The in-degree of the vertex.
+   */
+  int inDegree(int vertex) {
+    return inOffsets.get(vertex + 1) - inOffsets.get(vertex);
+  }
+
+  /**
+   * Checks if there is an edge from one vertex to another, with a single lookup in the packed edge
+   * set. If the storage does not hash the edges, the source's sorted row is binary searched
+   * instead.
+   *
+   * @param source The id of the source vertex.
+   * @param destination The id of the destination vertex.
+   * @return <code> true </code> if the edge exists, <code> false </code> otherwise.
+   */
+  boolean hasEdge(int source, int destination) {
+    if (edgeSet != null) {
+      return edgeSet.contains(LongHashSet.pack(source, destination));
+    }
+    int low = outOffsets.get(source);
+    int high = outOffsets.get(source + 1) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int target = sortedOutTargets.get(middle);
+      if (target == destination) {
+        return true;
+      } else if (target < destination) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the roots of the graph, which are the verticies with no incoming edges. In an equivalence
+   * relation the smallest vertex of each equivalence class is also a root.
+   *
+   * @param partition The equivalence classes of the graph, or <code>null</code> if the graph is
+   *     not an equivalence relation.
+   * @return The ids of the roots, in ascending order.
+   */
+  int[] roots(EquivalencePartition partition) {
+    boolean[] isRoot = new boolean[vertexCount()];
+    for (int vertex = 0; vertex < vertexCount(); vertex++) {
+      if (inDegree(vertex) == 0) {
+        isRoot[vertex] = true;
+      }
+    }
+    if (partition != null) {
+      for (int minimum : partition.minimums()) {
+        isRoot[minimum] = true;
+      }
+    }
+
+    IdList roots = new IdList(vertexCount());
+    for (int vertex = 0; vertex < vertexCount(); vertex++) {
+      if (isRoot[vertex]) {
+        roots.add(vertex);
+      }
+    }
+    return roots.toArray();
+  }
+
+  /**
+   * Checks if every vertex has a self loop.
+   *
+   * @return <code> true </code> if the graph is reflexive, <code> false </code> otherwise.
+   */
+  boolean isReflexive() {
+    return selfLoopCount == vertexCount();
+  }
+
+  /**
+   * Gets every vertex that does not have a self loop, by reading the clear bits of the self loop
+   * bitmap a word at a time.
+   *
+   * @return The ids of the verticies without a self loop, in ascending order.
+   */
+  int[] verticesWithoutSelfLoop() {
+    int[] missing = new int[vertexCount() - selfLoopCount];
+    int count = 0;
+    for (int word = 0; word < selfLoops.length; word++) {
+      long clear = ~selfLoops[word];
+      while (clear != 0) {
+        int vertex = (word << 6) + Long.numberOfTrailingZeros(clear);
+        if (vertex >= vertexCount()) {
+          break;
+        }
+        missing[count++] = vertex;
+        clear &= clear - 1;
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * Checks if every edge from A to B has a matching edge from B to A. Large graphs are checked in
+   * parallel on the common fork join pool.
+   *
+   * @return <code> true </code> if the graph is symmetric, <code> false </code> otherwise.
+   */
+  boolean isSymmetric() {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    if (ParallelEdgeChecks.isWorthwhile(this, pool)) {
+      return ParallelEdgeChecks.holds(this, ParallelEdgeChecks.Check.SYMMETRY, pool);
+    }
+    for (int source = 0; source < vertexCount(); source++) {
+      for (int i = outOffsets.get(source); i < outOffsets.get(source + 1); i++) {
+        if (!hasEdge(outTargets.get(i), source)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks that no two distinct verticies have edges in both directions. Large graphs are checked
+   * in parallel on the common fork join pool.
+   *
+   * @return <code> true </code> if the graph is anti-symmetric, <code> false </code> otherwise.
+   */
+  boolean isAntiSymmetric() {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    if (ParallelEdgeChecks.isWorthwhile(this, pool)) {
+      return ParallelEdgeChecks.holds(this, ParallelEdgeChecks.Check.ANTI_SYMMETRY, pool);
+    }
+    for (int source = 0; source < vertexCount(); source++) {
+      for (int i = outOffsets.get(source); i < outOffsets.get(source + 1); i++) {
+        int destination = outTargets.get(i);
+        if (destination != source && hasEdge(destination, source)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks that for every edge from A to B and B to C there is also an edge from A to C, using the
+   * bitmap based {@link TransitivityChecker}.
+   *
+   * @return <code> true </code> if the graph is transitive, <code> false </code> otherwise.
+   */
+  boolean isTransitive() {
+    return TransitivityChecker.isTransitive(this);
+  }
+
+  /**
+   * Performs a breadth first search from the given roots. The children found while visiting the
+   * roots are collected in an {@link IntOrderedQueue} and join the child queue in ascending order,
+   * after which every vertex enqueues its children in the order of the graph's edge set.
+   *
+   * @param roots The ids of the roots, in the order they should be visited.
+   * @return The ids of the verticies in the order they were visited.
+   */
+  int[] iterativeBreadthFirstSearch(int[] roots) {
+    try (TraversalContext context = TraversalContext.begin(vertexCount())) {
+      IntQueue rootQueue = context.rootQueue;
+      IntQueue childQueue = context.childQueue;
+
+      for (int root : roots) {
+        if (!context.isVisited(root)) {
+          rootQueue.enqueue(root);
+          context.markVisited(root);
+        }
+      }
+      // Visit every root first, collecting their children in order
+      while (!rootQueue.isEmpty()) {
+        int currentVertex = rootQueue.dequeue();
+        context.record(currentVertex);
+        enqueueChildren(currentVertex, context, context.rootChildren);
+      }
+      moveInOrder(context.rootChildren, childQueue);
+      // Then visit the children level by level
+      while (!childQueue.isEmpty()) {
+        int currentVertex = childQueue.dequeue();
+        context.record(currentVertex);
+        enqueueChildren(currentVertex, context, childQueue);
+      }
+      return context.traversalOrder();
+    }
+  }
+
+  /**
+   * Performs a recursive breadth first search from the given roots, in the same order as {@link
+   * #iterativeBreadthFirstSearch(int[])}.
+   *
+   * <p>The recursion is run on a trampoline: each step of the helper returns whether it would have
+   * called itself again, and this loop makes that call instead. The native stack therefore stays
+   * the same depth however many roots the graph has.
+   *
+   * @param roots The ids of the roots, in the order they should be visited.
+   * @return The ids of the verticies in the order they were visited.
+   */
+  int[] recursiveBreadthFirstSearch(int[] roots) {
+    try (TraversalContext context = TraversalContext.begin(vertexCount())) {
+
+      for (int root : roots) {
+        context.rootQueue.enqueue(root);
+        context.markVisited(root);
+      }
+      // Each step that would have recursed returns true, so we just take the next step
+      boolean recurse = true;
+      while (recurse) {
+        recurse = recursiveBreadthSearchStep(context);
+      }
+      return context.traversalOrder();
+    }
+  }
+
+  /**
+   * Helper function for recursive breadth first search. Each step visits one root, or finishes the
+   * child queue once the roots are used up.
+   *
+   * @param context The visited verticies, the root and child queues and the traversal so far
+   * @return <code> true </code> if there is another step to take, <code> false </code> otherwise.
+   */
+  private boolean recursiveBreadthSearchStep(TraversalContext context) {
+    IntQueue rootQueue = context.rootQueue;
+    IntQueue childQueue = context.childQueue;
+    if (rootQueue.isEmpty() && context.rootChildren.isEmpty() && childQueue.isEmpty()) {
+      return false;
+    }
+    if (rootQueue.isEmpty()) {
+      moveInOrder(context.rootChildren, childQueue);
+      while (!childQueue.isEmpty()) {
+        int currentVertex = childQueue.dequeue();
+        context.record(currentVertex);
+        enqueueChildren(currentVertex, context, childQueue);
+      }
+    } else {
+      int currentVertex = rootQueue.dequeue();
+      context.record(currentVertex);
+      enqueueChildren(currentVertex, context, context.rootChildren);
+    }
+    return true;
+  }
+
+  /**
+   * Helper function that enqueues the unvisited children of a vertex and marks them as visited.
+   *
+   * @param vertex The id of the vertex whose children are enqueued
+   * @param context The context that tracks which ids have been visited or queued already
+   * @param childQueue The queue to add the children to
+   */
+  private void enqueueChildren(int vertex, TraversalContext context, IntQueue childQueue) {
+    for (int i = outOffsets.get(vertex); i < outOffsets.get(vertex + 1); i++) {
+      int child = outTargets.get(i);
+      if (!context.isVisited(child)) {
+        childQueue.enqueue(child);
+        context.markVisited(child);
+      }
+    }
+  }
+
+  /**
+   * Helper function that enqueues the unvisited children of a root and marks them as visited.
+   *
+   * @param vertex The id of the root whose children are enqueued
+   * @param context The context that tracks which ids have been visited or queued already
+   * @param rootChildren The ordered queue to add the children to
+   */
+  private void enqueueChildren(
+      int vertex, TraversalContext context, IntOrderedQueue rootChildren) {
+    for (int i = outOffsets.get(vertex); i < outOffsets.get(vertex + 1); i++) {
+      int child = outTargets.get(i);
+      if (!context.isVisited(child)) {
+        rootChildren.enqueue(child);
+        context.markVisited(child);
+      }
+    }
+  }
+
+  /**
+   * Helper function that moves every id from an ordered queue to the end of a queue, smallest
+   * first.
+   *
+   * @param from The ordered queue to empty
+   * @param to The queue to add the ids to
+   */
+  private void moveInOrder(IntOrderedQueue from, IntQueue to) {
+    while (!from.isEmpty()) {
+      to.enqueue(from.dequeue());
+    }
+  }
+
+  /**
+   * Performs a depth first search from the given roots, always moving to the smallest unvisited
+   * neighbour first.
+   *
+   * @param roots The ids of the roots, in the order they should be visited.
+   * @return The ids of the verticies in the order they were visited.
+   */
+  int[] iterativeDepthFirstSearch(int[] roots) {
+    try (TraversalContext context = TraversalContext.begin(vertexCount())) {
+      IntStack stack = context.stack;
+
+      for (int root : roots) {
+        if (!context.isVisited(root)) {
+          stack.push(root);
+          while (!stack.isEmpty()) {
+            int currentVertex = stack.pop();
+            if (!context.isVisited(currentVertex)) {
+              context.markVisited(currentVertex);
+              context.record(currentVertex);
+              // Any neighbour that is visited by the time it is popped is skipped above
+              pushSortedRow(currentVertex, stack, context.row());
+            }
+          }
+        }
+      }
+      return context.traversalOrder();
+    }
+  }
+
+  /**
+   * Helper function that pushes the sorted row of a vertex onto a stack in reverse, so its smallest
+   * neighbour is on top. The row is copied out of the store in bulk and then pushed in one go.
+   *
+   * @param vertex The id of the vertex whose neighbours are pushed
+   * @param stack The stack to push the neighbours onto
+   * @param row A buffer at least as long as the row
+   */
+  private void pushSortedRow(int vertex, IntStack stack, int[] row) {
+    int start = outOffsets.get(vertex);
+    int degree = outOffsets.get(vertex + 1) - start;
+    sortedOutTargets.copyTo(start, row, 0, degree);
+    stack.pushReversed(row, 0, degree);
+  }
+
+  /**
+   * Performs a recursive depth first search from the given roots, in the same order as {@link
+   * #iterativeDepthFirstSearch(int[])}.
+   *
+   * <p>The recursion is made explicit so deep graphs cannot overflow the native stack. Each frame
+   * of the recursion is a vertex and the index of the next out-edge it will look at, which is
+   * exactly where a recursive call would resume after its child returns.
+   *
+   * @param roots The ids of the roots, in the order they should be visited.
+   * @return The ids of the verticies in the order they were visited.
+   */
+  int[] recursiveDepthFirstSearch(int[] roots) {
+    try (TraversalContext context = TraversalContext.begin(vertexCount())) {
+      // A path can hold each vertex at most once, so the frames never need to grow
+      int[] frameVertex = context.frameVertex();
+      int[] frameCursor = context.frameCursor();
+
+      for (int root : roots) {
+        if (context.isVisited(root)) {
+          continue;
+        }
+        int depth = 0;
+        context.markVisited(root);
+        context.record(root);
+        frameVertex[depth] = root;
+        frameCursor[depth] = outOffsets.get(root);
+        depth++;
+
+        while (depth > 0) {
+          int frame = depth - 1;
+          int vertex = frameVertex[frame];
+          // Resume the frame on top from its next unvisited neighbour
+          int cursor = frameCursor[frame];
+          while (cursor < outOffsets.get(vertex + 1)
+              && context.isVisited(sortedOutTargets.get(cursor))) {
+            cursor++;
+          }
+          if (cursor == outOffsets.get(vertex + 1)) {
+            // Every neighbour is visited, so this call returns to its caller
+            depth--;
+            continue;
+          }
+          int neighbour = sortedOutTargets.get(cursor);
+          frameCursor[frame] = cursor + 1;
+          context.markVisited(neighbour);
+          context.record(neighbour);
+          frameVertex[depth] = neighbour;
+          frameCursor[depth] = outOffsets.get(neighbour);
+          depth++;
+        }
+      }
+      return context.traversalOrder();
+    }
+  }
+
+  /**
+   * Finds a shortest path between two verticies with a bidirectional breadth first search. One
+   * search walks forwards along the out-edges from the source while the other walks backwards along
+   * the in-edges from the destination, and each round a whole level of whichever frontier is
+   * smaller is expanded. The search stops as soon as the two sides meet, so it usually touches far
+   * fewer verticies than a full search.
+   *
+   * <p>A vertex on the frontier being expanded has not been reached by the other side, so every
+   * meeting found during a level gives a path of the same length, and the first one is shortest.
+   *
+   * @param source The id of the first vertex of the path.
+   * @param destination The id of the last vertex of the path.
+   * @return The ids along a shortest path, including both ends, or <code>null</code> if the
+   *     destination cannot be reached from the source.
+   */
+  int[] shortestPath(int source, int destination) {
+    if (source == destination) {
+      return new int[] {source};
+    }
+    try (TraversalContext context = TraversalContext.begin(vertexCount())) {
+      IntQueue forwardQueue = context.forwardQueue;
+      IntQueue backwardQueue = context.backwardQueue;
+      int[] links = context.links();
+
+      context.markVisited(source);
+      links[source] = -1;
+      forwardQueue.enqueue(source);
+      context.markVisitedBackward(destination);
+      links[destination] = -1;
+      backwardQueue.enqueue(destination);
+
+      while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+        if (forwardQueue.size() <= backwardQueue.size()) {
+          for (int remaining = forwardQueue.size(); remaining > 0; remaining--) {
+            int vertex = forwardQueue.dequeue();
+            for (int i = outOffsets.get(vertex); i < outOffsets.get(vertex + 1); i++) {
+              int child = outTargets.get(i);
+              if (context.isVisitedBackward(child)) {
+                return joinPath(links, vertex, child);
+              }
+              if (!context.isVisited(child)) {
+                context.markVisited(child);
+                links[child] = vertex;
+                forwardQueue.enqueue(child);
+              }
+            }
+          }
+        } else {
+          for (int remaining = backwardQueue.size(); remaining > 0; remaining--) {
+            int vertex = backwardQueue.dequeue();
+            for (int i = inOffsets.get(vertex); i < inOffsets.get(vertex + 1); i++) {
+              int parent = inSources.get(i);
+              if (context.isVisited(parent)) {
+                return joinPath(links, parent, vertex);
+              }
+              if (!context.isVisitedBackward(parent)) {
+                context.markVisitedBackward(parent);
+                links[parent] = vertex;
+                backwardQueue.enqueue(parent);
+              }
+            }
+          }
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Helper function that joins the two halves of a bidirectional search into a path, across the
+   * edge where they met.
+   *
+   * @param links The link of each reached vertex
+   * @param forwardEnd The vertex reached forwards at the meeting edge
+   * @param backwardEnd The vertex reached backwards at the meeting edge
+   * @return The ids along the path, from the source to the destination.
+   */
+  private static int[] joinPath(int[] links, int forwardEnd, int backwardEnd) {
+    int length = 0;
+    for (int vertex = forwardEnd; vertex >= 0; vertex = links[vertex]) {
+      length++;
+    }
+    int forwardLength = length;
+    for (int vertex = backwardEnd; vertex >= 0; vertex = links[vertex]) {
+      length++;
+    }
+
+    int[] path = new int[length];
+    int index = forwardLength - 1;
+    for (int vertex = forwardEnd; vertex >= 0; vertex = links[vertex]) {
+      path[index--] = vertex;
+    }
+    index = forwardLength;
+    for (int vertex = backwardEnd; vertex >= 0; vertex = links[vertex]) {
+      path[index++] = vertex;
+    }
+    return path;
+  }
+
+  /**
+   * Creates a lazy breadth first search from the given roots, which yields the verticies in the
+   * same order as {@link #iterativeBreadthFirstSearch(int[])}. Each call to <code>next</code>
+   * visits one vertex, so a caller that stops early never pays for the rest of the graph.
+   *
+   * @param roots The ids of the roots, in the order they should be visited.
+   * @return An iterator of the ids in the order they are visited.
+   */
+  PrimitiveIterator.OfInt breadthFirstIterator(int[] roots) {
+    return new BreadthFirstIterator(roots);
+  }
+
+  /**
+   * Creates a lazy depth first search from the given roots, which yields the verticies in the same
+   * order as {@link #iterativeDepthFirstSearch(int[])}.
+   *
+   * @param roots The ids of the roots, in the order they should be visited.
+   * @return An iterator of the ids in the order they are visited.
+   */
+  PrimitiveIterator.OfInt depthFirstIterator(int[] roots) {
+    return new DepthFirstIterator(roots);
+  }
+
+  /**
+   * A breadth first search that runs one vertex at a time. It has its own visited bitmap and
+   * queues rather than borrowing the thread's {@link TraversalContext}, as it can be left half
+   * way through while other searches run.
+   */
+  private class BreadthFirstIterator implements PrimitiveIterator.OfInt {
+    private final long[] visited = Bitmaps.create(vertexCount());
+    private final IntQueue rootQueue;
+    private final IntOrderedQueue rootChildren = new IntOrderedQueue();
+    private final IntQueue childQueue = new IntQueue();
+
+    BreadthFirstIterator(int[] roots) {
+      rootQueue = new IntQueue(roots.length);
+      for (int root : roots) {
+        if (!Bitmaps.get(visited, root)) {
+          rootQueue.enqueue(root);
+          Bitmaps.set(visited, root);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !rootQueue.isEmpty() || !rootChildren.isEmpty() || !childQueue.isEmpty();
+    }
+
+    @Override
+    public int nextInt() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int currentVertex;
+      if (!rootQueue.isEmpty()) {
+        // Visit every root first, collecting their children in order
+        currentVertex = rootQueue.dequeue();
+        enqueueUnvisited(currentVertex, rootChildren);
+      } else {
+        // Then visit the children level by level
+        moveInOrder(rootChildren, childQueue);
+        currentVertex = childQueue.dequeue();
+        enqueueUnvisited(currentVertex, childQueue);
+      }
+      return currentVertex;
+    }
+
+    /**
+     * Helper function that enqueues the unvisited children of a vertex and marks them as visited.
+     *
+     * @param vertex The id of the vertex whose children are enqueued
+     * @param queue The queue to add the children to
+     */
+    private void enqueueUnvisited(int vertex, IntQueue queue) {
+      for (int i = outOffsets.get(vertex); i < outOffsets.get(vertex + 1); i++) {
+        int child = outTargets.get(i);
+        if (!Bitmaps.get(visited, child)) {
+          queue.enqueue(child);
+          Bitmaps.set(visited, child);
+        }
+      }
+    }
+
+    /**
+     * Helper function that enqueues the unvisited children of a root and marks them as visited.
+     *
+     * @param vertex The id of the root whose children are enqueued
+     * @param queue The ordered queue to add the children to
+     */
+    private void enqueueUnvisited(int vertex, IntOrderedQueue queue) {
+      for (int i = outOffsets.get(vertex); i < outOffsets.get(vertex + 1); i++) {
+        int child = outTargets.get(i);
+        if (!Bitmaps.get(visited, child)) {
+          queue.enqueue(child);
+          Bitmaps.set(visited, child);
+        }
+      }
+    }
+  }
+
+  /**
+   * A depth first search that runs one vertex at a time. The next vertex is found ahead of time,
+   * so {@link #hasNext()} knows whether the search has any verticies left.
+   */
+  private class DepthFirstIterator implements PrimitiveIterator.OfInt {
+    private final long[] visited = Bitmaps.create(vertexCount());
+    private final IntStack stack = new IntStack();
+    private int[] row = new int[0];
+    private final int[] roots;
+    private int nextRoot = 0;
+    private int upcoming;
+
+    DepthFirstIterator(int[] roots) {
+      this.roots = roots;
+      upcoming = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return upcoming >= 0;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int currentVertex = upcoming;
+      upcoming = advance();
+      return currentVertex;
+    }
+
+    /**
+     * Helper function that runs the search until it visits its next vertex.
+     *
+     * @return The id of the next vertex visited, or -1 if the search is finished.
+     */
+    private int advance() {
+      while (true) {
+        // Start from the next root once everything reachable from the last one is visited
+        while (stack.isEmpty()) {
+          if (nextRoot == roots.length) {
+            return -1;
+          }
+          stack.push(roots[nextRoot++]);
+        }
+        int currentVertex = stack.pop();
+        if (!Bitmaps.get(visited, currentVertex)) {
+          Bitmaps.set(visited, currentVertex);
+          if (row.length < outDegree(currentVertex)) {
+            row = new int[outDegree(currentVertex)];
+          }
+          pushSortedRow(currentVertex, stack, row);
+          return currentVertex;
+        }
+      }
+    }
+  }
+
+  /** A growable list of ids, used to collect the roots. */
+  private static class IdList {
+    private int[] ids;
+    private int size;
+
+    IdList(int capacity) {
+      ids = new int[Math.max(capacity, 1)];
+    }
+
+    void add(int id) {
+      if (size == ids.length) {
+        int[] grown = new int[ids.length * 2];
+        System.arraycopy(ids, 0, grown, 0, size);
+        ids = grown;
+      }
+      ids[size++] = id;
+    }
+
+    int[] toArray() {
+      int[] result = new int[size];
+      System.arraycopy(ids, 0, result, 0, size);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A direction optimising breadth first search. A normal, top down step scans the out-edges of
+ * every vertex in the frontier, and once the frontier is large most of those edges lead to
+ * verticies that are already visited. A bottom up step instead has every unvisited vertex scan its
+ * in-edges for any parent in the frontier, and stops at the first one it finds.
+ *
+ * <p>The search starts top down and switches to bottom up when the out-edges of the frontier
+ * outnumber the out-edges of the unvisited verticies by more than {@link #TO_BOTTOM_UP}. It
+ * switches back once the frontier holds fewer than one in {@link #TO_TOP_DOWN} verticies.
+ *
+ * <p>A bottom up step does not know which parent would have reached a vertex first, so the search
+ * cannot follow the queue order of {@link CsrGraph#iterativeBreadthFirstSearch(int[])}. It visits
+ * exactly the same verticies, level by level, with each level in ascending order.
+ */
+final class DirectionOptimizingSearch {
+  private static final int TO_BOTTOM_UP = 14;
+  private static final int TO_TOP_DOWN = 24;
+
+  private DirectionOptimizingSearch() {}
+
+  /**
+   * Performs a direction optimising breadth first search from the given roots.
+   *
+   * @param graph The graph to search.
+   * @param roots The ids of the roots.
+   * @return The ids of the verticies visited, ordered by level and then by id.
+   */
+  static int[] search(CsrGraph<?> graph, int[] roots) {
+    int vertexCount = graph.vertexCount();
+    long[] visited = Bitmaps.create(vertexCount);
+    long[] frontier = Bitmaps.create(vertexCount);
+    // Each level is a slice of the visit order, straight after the level before it
+    int[] order = new int[vertexCount];
+    int end = 0;
+    long unvisitedEdges = graph.edgeCount();
+
+    for (int root : roots) {
+      if (!Bitmaps.get(visited, root)) {
+        Bitmaps.set(visited, root);
+        order[end++] = root;
+        unvisitedEdges -= graph.outDegree(root);
+      }
+    }
+    Arrays.sort(order, 0, end);
+
+    int start = 0;
+    boolean bottomUp = false;
+    while (start < end) {
+      long frontierEdges = 0;
+      for (int i = start; i < end; i++) {
+        frontierEdges += graph.outDegree(order[i]);
+      }
+      if (!bottomUp && frontierEdges > unvisitedEdges / TO_BOTTOM_UP) {
+        bottomUp = true;
+      } else if (bottomUp && end - start < vertexCount / TO_TOP_DOWN) {
+        bottomUp = false;
+      }
+
+      int next;
+      if (bottomUp) {
+        for (int i = start; i < end; i++) {
+          Bitmaps.set(frontier, order[i]);
+        }
+        next = bottomUpStep(graph, visited, frontier, order, end);
+        for (int i = start; i < end; i++) {
+          Bitmaps.clear(frontier, order[i]);
+        }
+      } else {
+        next = topDownStep(graph, visited, order, start, end);
+        Arrays.sort(order, end, next);
+      }
+
+      for (int i = end; i < next; i++) {
+        unvisitedEdges -= graph.outDegree(order[i]);
+      }
+      start = end;
+      end = next;
+    }
+    return Arrays.copyOf(order, end);
+  }
+
+  /**
+   * Helper function that visits the next level by scanning the out-edges of the frontier.
+   *
+   * @param graph The graph being searched
+   * @param visited The visited verticies
+   * @param order The visit order, with the frontier at the end
+   * @param start The position of the first frontier vertex
+   * @param end The position after the last frontier vertex
+   * @return The position after the last vertex of the new level.
+   */
+  private static int topDownStep(
+      CsrGraph<?> graph, long[] visited, int[] order, int start, int end) {
+    int next = end;
+    for (int i = start; i < end; i++) {
+      int vertex = order[i];
+      for (int j = graph.outStart(vertex); j < graph.outEnd(vertex); j++) {
+        int child = graph.outTarget(j);
+        if (!Bitmaps.get(visited, child)) {
+          Bitmaps.set(visited, child);
+          order[next++] = child;
+        }
+      }
+    }
+    return next;
+  }
+
+  /**
+   * Helper function that visits the next level by having every unvisited vertex look for a parent
+   * in the frontier. The unvisited verticies are read from the clear bits of the visited bitmap a
+   * word at a time, so the level comes out in ascending order.
+   *
+   * @param graph The graph being searched
+   * @param visited The visited verticies
+   * @param frontier The verticies in the frontier
+   * @param order The visit order, with the frontier at the end
+   * @param end The position after the last frontier vertex
+   * @return The position after the last vertex of the new level.
+   */
+  private static int bottomUpStep(
+      CsrGraph<?> graph, long[] visited, long[] frontier, int[] order, int end) {
+    int next = end;
+    for (int word = 0; word < visited.length; word++) {
+      long unvisited = ~visited[word];
+      while (unvisited != 0) {
+        int vertex = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+        unvisited &= unvisited - 1;
+        if (vertex >= graph.vertexCount()) {
+          break;
+        }
+        for (int j = graph.inStart(vertex); j < graph.inEnd(vertex); j++) {
+          if (Bitmaps.get(frontier, graph.inSource(j))) {
+            order[next++] = vertex;
+            break;
+          }
+        }
+      }
+    }
+    // The new level is only marked once the scan is done, so it cannot act as its own parent
+    for (int i = end; i < next; i++) {
+      Bitmaps.set(visited, order[i]);
+    }
+    return next;
+  }
+}
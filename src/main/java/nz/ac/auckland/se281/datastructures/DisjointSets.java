@@ -0,0 +1,32 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A collection of disjoint sets over the ids <code>0</code> to <code>size - 1</code>, where every
+ * set is named by one representative id.
+ */
+public interface DisjointSets {
+
+  /**
+   * Finds the representative of the set that contains an id.
+   *
+   * @param id The id to look up.
+   * @return The representative id of its set.
+   */
+  int find(int id);
+
+  /**
+   * Joins the sets that contain two ids.
+   *
+   * @param first The first id.
+   * @param second The second id.
+   * @return <code> true </code> if the ids were in different sets, <code> false </code> otherwise.
+   */
+  boolean union(int first, int second);
+
+  /**
+   * Gets the number of ids.
+   *
+   * @return The number of ids.
+   */
+  int size();
+}
@@ -66,9 +66,10 @@ public class Edge<T> {
   }
 
   // Override the hashCode method to generate a hash code for an edge based on its source and
-  // destination vertices.
+  // destination vertices. This gives the same value as Objects.hash, without allocating an array
+  // for its varargs on every lookup.
   @Override
   public int hashCode() {
-    return Objects.hash(source, destination);
+    return 31 * (31 + Objects.hashCode(source)) + Objects.hashCode(destination);
   }
 }
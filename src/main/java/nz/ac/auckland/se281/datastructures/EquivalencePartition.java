@@ -0,0 +1,165 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The partition of a graph's verticies into equivalence classes. It is built once from the edges of
+ * a {@link CsrGraph} with a {@link UnionFind}, after which the class of any vertex, and the minimum
+ * vertex of every class, can be looked up directly.
+ *
+ * <p>Large graphs are instead joined with a {@link ConcurrentUnionFind}, with ranges of the edges
+ * joined in parallel on the common fork join pool. Both give the same classes, so the partition,
+ * and the class minimums used as roots, are the same either way.
+ */
+final class EquivalencePartition {
+  // Graphs with fewer edges than this are joined on the calling thread
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+  // Ranges of source verticies are split until they hold at most this many edges
+  private static final int GRAIN = 1 << 12;
+
+  private final int[] classOf;
+  private final int[] classOffsets;
+  private final int[] members;
+  private final int[] minimums;
+
+  /**
+   * Builds the partition of a graph by joining the two end points of every edge.
+   *
+   * @param graph The graph to partition.
+   */
+  EquivalencePartition(CsrGraph<?> graph) {
+    this(classesOf(graph));
+  }
+
+  /**
+   * Builds a partition from a finished union-find. The members of each class are stored together
+   * in ascending id order, so the first member of a class is its minimum.
+   *
+   * @param sets The union-find whose sets are the equivalence classes.
+   */
+  EquivalencePartition(DisjointSets sets) {
+    int size = sets.size();
+    classOf = new int[size];
+    int[] classOfRoot = new int[size];
+    int classCount = 0;
+
+    // Number the classes in the order of their smallest member
+    for (int vertex = 0; vertex < size; vertex++) {
+      int root = sets.find(vertex);
+      if (classOfRoot[root] == 0) {
+        classOfRoot[root] = ++classCount;
+      }
+      classOf[vertex] = classOfRoot[root] - 1;
+    }
+
+    classOffsets = new int[classCount + 1];
+    for (int vertex = 0; vertex < size; vertex++) {
+      classOffsets[classOf[vertex] + 1]++;
+    }
+    for (int i = 1; i <= classCount; i++) {
+      classOffsets[i] += classOffsets[i - 1];
+    }
+    members = new int[size];
+    int[] cursor = new int[classCount];
+    System.arraycopy(classOffsets, 0, cursor, 0, classCount);
+    for (int vertex = 0; vertex < size; vertex++) {
+      members[cursor[classOf[vertex]]++] = vertex;
+    }
+
+    minimums = new int[classCount];
+    for (int i = 0; i < classCount; i++) {
+      minimums[i] = members[classOffsets[i]];
+    }
+  }
+
+  /**
+   * Helper function that joins the end points of every edge of a graph in a union-find.
+   *
+   * @param graph The graph to partition.
+   * @return The finished union-find.
+   */
+  private static DisjointSets classesOf(CsrGraph<?> graph) {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    if (graph.edgeCount() >= PARALLEL_THRESHOLD && pool.getParallelism() > 1) {
+      ConcurrentUnionFind sets = new ConcurrentUnionFind(graph.vertexCount());
+      pool.invoke(new UnionEdgesTask(graph, sets, 0, graph.vertexCount()));
+      return sets;
+    }
+    UnionFind sets = new UnionFind(graph.vertexCount());
+    unionEdges(graph, sets, 0, graph.vertexCount());
+    return sets;
+  }
+
+  /**
+   * Helper function that joins the end points of the out-edges of a range of source verticies.
+   *
+   * @param graph The graph to partition.
+   * @param sets The union-find to join the end points in.
+   * @param from The first source vertex.
+   * @param to The source vertex after the last.
+   */
+  private static void unionEdges(CsrGraph<?> graph, DisjointSets sets, int from, int to) {
+    for (int source = from; source < to; source++) {
+      for (int i = graph.outStart(source); i < graph.outEnd(source); i++) {
+        int destination = graph.outTarget(i);
+        // A self loop never joins two sets, so we skip the lookup
+        if (destination != source) {
+          sets.union(source, destination);
+        }
+      }
+    }
+  }
+
+  /** A task that joins the edges of a range of source verticies in a concurrent union-find. */
+  private static final class UnionEdgesTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final CsrGraph<?> graph;
+    private final ConcurrentUnionFind sets;
+    private final int from;
+    private final int to;
+
+    UnionEdgesTask(CsrGraph<?> graph, ConcurrentUnionFind sets, int from, int to) {
+      this.graph = graph;
+      this.sets = sets;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (graph.outStart(to) - graph.outStart(from) > GRAIN && to - from > 1) {
+        int middle = (from + to) >>> 1;
+        invokeAll(
+            new UnionEdgesTask(graph, sets, from, middle),
+            new UnionEdgesTask(graph, sets, middle, to));
+      } else {
+        unionEdges(graph, sets, from, to);
+      }
+    }
+  }
+
+  /**
+   * Gets the members of the equivalence class of a vertex.
+   *
+   * @param vertex The vertex id.
+   * @return The ids in the same class as the vertex, in ascending order.
+   */
+  int[] members(int vertex) {
+    int classIndex = classOf[vertex];
+    int[] result = new int[classOffsets[classIndex + 1] - classOffsets[classIndex]];
+    System.arraycopy(members, classOffsets[classIndex], result, 0, result.length);
+    return result;
+  }
+
+  /**
+   * Gets the smallest vertex of every equivalence class.
+   *
+   * @return The minimum id of each class, in ascending order.
+   */
+  int[] minimums() {
+    return minimums.clone();
+  }
+}
@@ -1,16 +1,30 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import nz.ac.auckland.se281.datastructures.PropertyCache.Property;
 
 /**
- * A graph that is composed of a set of verticies and edges.
+ * A graph that is composed of a set of verticies and edges. The graph is a facade over a {@link
+ * CsrGraph}, which maps every vertex to a dense <code>int</code> id when the graph is constructed
+ * and runs every search and property check on those ids.
+ *
+ * <p>The order of the verticies is decided by a {@link Comparator} chosen when the graph is built.
+ * By default this is a {@link NumericAwareComparator}, so numeric labels are ordered by value.
+ *
+ * <p>Every change made through {@link #addVertex(Comparable)} or {@link #addEdge(Comparable,
+ * Comparable)} bumps a structural version. The index, the graph properties, the roots and the
+ * equivalence classes are computed at most once per version, and reused until the next change.
+ * Changes made directly to the sets passed to the constructor are not tracked.
  *
  * <p>You must NOT change the signature of the existing methods or constructor of this class.
  *
@@ -20,69 +34,109 @@ public class Graph<T extends Comparable<T>> {
   // Intialise private fields for the Graph class
   private Set<T> verticies;
   private Set<Edge<T>> edges;
+  private Comparator<? super T> ordering;
+  private GraphStorage storage;
+  private CsrGraph<T> csr;
+  // With off heap storage the sets are dropped once indexed, and changes wait here until the next
+  // rebuild
+  private Set<T> addedVerticies;
+  private Set<Edge<T>> addedEdges;
+  private int version = 0;
+  private int indexedVersion = 0;
+  private final PropertyCache cache = new PropertyCache();
 
   public Graph(Set<T> verticies, Set<Edge<T>> edges) {
-    this.verticies = verticies;
-    this.edges = edges;
+    this(verticies, edges, new NumericAwareComparator<T>());
   }
 
   /**
-   * Checks through a graph to find its roots. We define a root as a vertex that has no incoming
-   * edges and is not a destination of any edge or is a vertex that is the minimum value of an
-   * equivalence class.
+   * Creates a graph whose verticies are ordered by the given comparator. Roots, searches and
+   * equivalence classes all follow this order.
    *
-   * @return A set of all the roots in the graph.
+   * @param verticies The verticies of the graph.
+   * @param edges The edges of the graph.
+   * @param ordering The comparator that decides the order of the verticies.
    */
-  public Set<T> getRoots() {
-    Set<T> rootVertices = new LinkedHashSet<>(verticies);
-
-    // Create a map to store the in-degree of each vertex
-    Map<T, Integer> inDegreeMap = new HashMap<>();
-    for (T vertex : verticies) {
-      inDegreeMap.put(vertex, 0);
-    }
+  public Graph(Set<T> verticies, Set<Edge<T>> edges, Comparator<? super T> ordering) {
+    this(verticies, edges, ordering, GraphStorage.heap());
+  }
 
-    // Calculate the in-degree of each vertex
-    for (Edge<T> edge : edges) {
-      T destination = edge.getDestination();
-      inDegreeMap.put(destination, inDegreeMap.get(destination) + 1);
+  /**
+   * Creates a graph that keeps its adjacency arrays in the given storage, such as memory mapped
+   * files for a graph that is larger than the heap. Every search and property check works the same
+   * whatever the storage.
+   *
+   * <p>With off heap storage the graph does not keep the vertex and edge sets once they are
+   * indexed. Later changes are held until the index is next rebuilt, and then added after the
+   * indexed edges, so the breadth first searches enqueue the new children after the old ones
+   * rather than in the order of the edge set.
+   *
+   * @param verticies The verticies of the graph.
+   * @param edges The edges of the graph.
+   * @param ordering The comparator that decides the order of the verticies.
+   * @param storage Where to keep the adjacency arrays.
+   */
+  public Graph(
+      Set<T> verticies,
+      Set<Edge<T>> edges,
+      Comparator<? super T> ordering,
+      GraphStorage storage) {
+    this.verticies = verticies;
+    this.edges = edges;
+    this.ordering = ordering;
+    this.storage = storage;
+    this.csr = new CsrGraph<>(verticies, edges, ordering, storage);
+    if (storage.isOffHeap()) {
+      this.verticies = null;
+      this.edges = null;
+      addedVerticies = new LinkedHashSet<>();
+      addedEdges = new LinkedHashSet<>();
     }
+  }
 
-    // Remove vertices with non-zero in-degree or zero out-degree
-    for (Edge<T> edge : edges) {
-      T source = edge.getSource();
-      T destination = edge.getDestination();
-
-      if (inDegreeMap.get(destination) > 0 || !verticies.contains(source)) {
-        rootVertices.remove(destination);
-      }
+  /**
+   * Adds a vertex to the graph.
+   *
+   * @param vertex The vertex to add.
+   * @return <code> true </code> if the vertex was not already in the graph, <code> false </code>
+   *     otherwise.
+   */
+  public boolean addVertex(T vertex) {
+    if (!addToVerticies(vertex)) {
+      return false;
     }
+    version++;
+    return true;
+  }
 
-    // If the graph is an equivalence relation, we will need to find the minimum value of each
-    // equivalence class
-    if (isEquivalence()) {
-      for (T vertex : verticies) {
-        Set<T> classSet = getEquivalenceClass(vertex);
-        rootVertices.add(getMinValue(classSet));
-      }
+  /**
+   * Adds an edge to the graph, along with either of its verticies that are not in the graph yet.
+   *
+   * @param source The source vertex of the edge.
+   * @param destination The destination vertex of the edge.
+   * @return <code> true </code> if the edge was not already in the graph, <code> false </code>
+   *     otherwise.
+   */
+  public boolean addEdge(T source, T destination) {
+    addToVerticies(source);
+    addToVerticies(destination);
+    if (!addToEdges(new Edge<>(source, destination))) {
+      return false;
     }
+    version++;
+    return true;
+  }
 
-    // We will sort the root vertices in ascending order via type casting
-    List<T> sortedRootVertices = new ArrayList<>(rootVertices);
-    List<Integer> sortIntegers = new ArrayList<>();
-    // Add our root vertices to an arraylist of integers
-    for (T vertex : sortedRootVertices) {
-      sortIntegers.add(Integer.parseInt(vertex.toString()));
-    }
-    // Call our helper function to sort our arraylist of integers into ascending order
-    sortArrayList(sortIntegers);
-    sortedRootVertices.clear();
-    // Add our sorted integers back to our root vertices set
-    for (Integer integer : sortIntegers) {
-      sortedRootVertices.add((T) integer.toString());
-    }
-    // Return our sorted root vertices
-    return new LinkedHashSet<>(sortedRootVertices);
+  /**
+   * Checks through a graph to find its roots. We define a root as a vertex that has no incoming
+   * edges and is not a destination of any edge or is a vertex that is the minimum value of an
+   * equivalence class.
+   *
+   * @return A set of all the roots in the graph.
+   */
+  public Set<T> getRoots() {
+    // The engine returns the roots in ascending order, so we only need to look up their labels
+    return new LinkedHashSet<>(toLabels(rootIds()));
   }
 
   /**
@@ -92,21 +146,17 @@ public class Graph<T extends Comparable<T>> {
    * @return <code> true </code> if the graph is reflexive, <code> false </code> otherwise.
    */
   public boolean isReflexive() {
-    for (T vertex : verticies) {
-      // We will check if the graph has a self loop for each vertex
-      boolean hasSelfLoop = false;
-      for (Edge<T> edge : edges) {
-        if (edge.getSource().equals(vertex) && edge.getDestination().equals(vertex)) {
-          hasSelfLoop = true;
-          break;
-        }
-      }
-      // If a vertex does not have a self loop, it is not reflexive.
-      if (hasSelfLoop == false) {
-        return false;
-      }
-    }
-    return true;
+    return cache().get(Property.REFLEXIVE, () -> index().isReflexive());
+  }
+
+  /**
+   * Gets the verticies that stop the graph from being reflexive. These are read from the self loop
+   * bitmap recorded when the graph was built, without another pass over the edges.
+   *
+   * @return The verticies that do not have a self loop, in ascending order.
+   */
+  public Set<T> getVerticiesWithoutSelfLoop() {
+    return new LinkedHashSet<>(toLabels(index().verticesWithoutSelfLoop()));
   }
 
   /**
@@ -116,14 +166,7 @@ public class Graph<T extends Comparable<T>> {
    * @return <code> true </code> if the graph is symmetric, <code> false </code> otherwise.
    */
   public boolean isSymmetric() {
-    // We will loop through every edge, and check if the symmetric edge exists, if not return false
-    for (Edge<T> edge : edges) {
-      Edge<T> symmetricEdge = new Edge<>(edge.getDestination(), edge.getSource());
-      if (!edges.contains(symmetricEdge) && !edge.getDestination().equals(edge.getSource())) {
-        return false;
-      }
-    }
-    return true;
+    return cache().get(Property.SYMMETRIC, () -> index().isSymmetric());
   }
 
   /**
@@ -133,17 +176,7 @@ public class Graph<T extends Comparable<T>> {
    * @return <code> true </code> if the graph is transitive, <code> false </code> otherwise.
    */
   public boolean isTransitive() {
-    // We will loop through every edge, and check if the transitive edge exists, if not return false
-    for (Edge<T> edgeA : edges) {
-      for (Edge<T> edgeB : edges) {
-        // If it is transistive, then we know the destination of edgeA is the source of edgeB
-        if (edgeA.getDestination().equals(edgeB.getSource())
-            && !edges.contains(new Edge<>(edgeA.getSource(), edgeB.getDestination()))) {
-          return false;
-        }
-      }
-    }
-    return true;
+    return cache().get(Property.TRANSITIVE, () -> index().isTransitive());
   }
 
   /**
@@ -153,15 +186,7 @@ public class Graph<T extends Comparable<T>> {
    * @return <code> true </code> if the graph is anti-symmetric, <code> false </code> otherwise.
    */
   public boolean isAntiSymmetric() {
-    // We will loop through every edge, checking if an edge and its symmetric edge exist, if they
-    // are not equal and the symmetric edge exists, return false
-    for (Edge<T> edge : edges) {
-      Edge<T> symmetricEdge = new Edge<>(edge.getDestination(), edge.getSource());
-      if (!edge.equals(symmetricEdge) && edges.contains(symmetricEdge)) {
-        return false;
-      }
-    }
-    return true;
+    return cache().get(Property.ANTI_SYMMETRIC, () -> index().isAntiSymmetric());
   }
 
   /**
@@ -174,7 +199,20 @@ public class Graph<T extends Comparable<T>> {
   public boolean isEquivalence() {
     // We will only have an equivalence relation if the graph is reflexive, symmetric and
     // transistive.
-    return isReflexive() && isSymmetric() && isTransitive();
+    return cache()
+        .get(Property.EQUIVALENCE, () -> isReflexive() && isSymmetric() && isTransitive());
+  }
+
+  /**
+   * Analyzes every relation property of the graph in a single pass. The results are also reused by
+   * {@link #isReflexive()}, {@link #isSymmetric()}, {@link #isAntiSymmetric()}, {@link
+   * #isTransitive()} and {@link #isEquivalence()}.
+   *
+   * @return A report of the reflexivity, symmetry, anti-symmetry, transitivity and equivalence of
+   *     the graph.
+   */
+  public GraphProperties analyze() {
+    return cache().properties(() -> GraphProperties.analyze(index()));
   }
 
   /**
@@ -186,7 +224,7 @@ public class Graph<T extends Comparable<T>> {
    */
   public Set<T> getEquivalenceClass(T vertex) {
     // Create a new tree set to store our equivalence class
-    Set<T> equivalenceClass = new TreeSet<>();
+    Set<T> equivalenceClass = new TreeSet<>(ordering);
     // We know there is no equivalence class if the graph is not an equivalence relation
     if (!isEquivalence()) {
       return equivalenceClass;
@@ -194,14 +232,10 @@ public class Graph<T extends Comparable<T>> {
     // Add our vertex to the equivalence class
     equivalenceClass.add(vertex);
 
-    // We will loop through every edge, and add the source and destination of the edge to the set of
-    // our equivalence class if the vertex is the source or destination of the edge
-    for (Edge<T> edge : edges) {
-      if (vertex.equals(edge.getSource())) {
-        equivalenceClass.add(edge.getDestination());
-      } else if (vertex.equals(edge.getDestination())) {
-        equivalenceClass.add(edge.getSource());
-      }
+    // Look up the class of our vertex in the partition
+    int id = index().idOf(vertex);
+    if (id >= 0) {
+      equivalenceClass.addAll(toLabels(getPartition().members(id)));
     }
 
     return equivalenceClass;
@@ -216,51 +250,7 @@ public class Graph<T extends Comparable<T>> {
    * @return a list of vertices in the order they were visited.
    */
   public List<T> iterativeBreadthFirstSearch() {
-    // Intialize our traversal order, visited set, and queues for our roots and child.
-    List<T> traversalOrder = new ArrayList<>();
-    Set<T> visited = new LinkedHashSet<>();
-    Queue<T> rootQueue = new Queue<>();
-    Queue<T> childQueue = new Queue<>();
-
-    // We will enqueue all of our roots to the root queue to be visited
-    Set<T> roots = getRoots();
-    for (T root : roots) {
-      if (!visited.contains(root)) {
-        rootQueue.enqueue(root);
-        visited.add(root);
-      }
-    }
-    // We will loop through our root queue and child queue until they are both empty
-    while (!rootQueue.isEmpty() || !childQueue.isEmpty()) {
-      // We will loop through our root queue first, then our child queue
-      if (!rootQueue.isEmpty()) {
-        T currentVertex = rootQueue.dequeue();
-        traversalOrder.add(currentVertex);
-
-        // Enqueue the children of the current vertex for looping through later
-        for (Edge<T> edge : edges) {
-          if (edge.getSource().equals(currentVertex) && !visited.contains(edge.getDestination())) {
-            childQueue.enqueue(edge.getDestination());
-            sortQueue(childQueue);
-            visited.add(edge.getDestination());
-          }
-        }
-        // Looping for our child queue
-      } else {
-        T currentVertex = childQueue.dequeue();
-        traversalOrder.add(currentVertex);
-
-        // Enqueue the children of the current vertex
-        for (Edge<T> edge : edges) {
-          if (edge.getSource().equals(currentVertex) && !visited.contains(edge.getDestination())) {
-            childQueue.enqueue(edge.getDestination());
-            visited.add(edge.getDestination());
-          }
-        }
-      }
-    }
-
-    return traversalOrder;
+    return toLabels(index().iterativeBreadthFirstSearch(rootIds()));
   }
 
   /**
@@ -271,71 +261,32 @@ public class Graph<T extends Comparable<T>> {
    * @return a list of vertices in the order they were visited.
    */
   public List<T> iterativeDepthFirstSearch() {
+    return toLabels(index().iterativeDepthFirstSearch(rootIds()));
+  }
 
-    // Intialize our traversal order, visited set, and stack for our roots and child.
-    List<T> traversalOrder = new ArrayList<>();
-    Set<T> visited = new TreeSet<>();
-    Stack<T> stack = new Stack<>();
-
-    // Get all of our roots and loop through them, if they are not visited, we will push them to the
-    // top of the stack
-    Set<T> roots = getRoots();
-
-    for (T root : roots) {
-      if (!visited.contains(root)) {
-        stack.push(root);
-        // Loop through our stack until it is empty.
-        while (!stack.isEmpty()) {
-          T currentVertex = stack.pop();
-          // If the current vertex is not visited, we will add it to our visited set, and traversal
-          // order
-          if (!visited.contains(currentVertex)) {
-            visited.add(currentVertex);
-            traversalOrder.add(currentVertex);
-            // Using a helper function, we will get the neighbors of the current vertex, and push
-            // them to the top of the stack if they are not visited
-            List<T> neighbors = getNeighbors(currentVertex);
-            List<Integer> intNeighbors = new ArrayList<>();
-            // Sort the neighbors in ascending order
-            for (int i = 0; i < neighbors.size(); i++) {
-              intNeighbors.add(Integer.parseInt(neighbors.get(i).toString()));
-            }
-            sortArrayList(intNeighbors);
-            neighbors.clear();
-            for (int i = 0; i < intNeighbors.size(); i++) {
-              neighbors.add((T) intNeighbors.get(i).toString());
-            }
-            neighbors = reverseList(neighbors);
-            for (T neighbor : neighbors) {
-              if (!visited.contains(neighbor)) {
-                stack.push(neighbor);
-              }
-            }
-          }
-        }
-      }
-    }
-
-    return traversalOrder;
+  /**
+   * Performs a breadth first search on the graph, expanding each level across the threads of the
+   * common fork join pool. The verticies are visited in the same order as {@link
+   * #iterativeBreadthFirstSearch()}, however many threads take part.
+   *
+   * @return a list of vertices in the order they were visited.
+   */
+  public List<T> parallelBreadthFirstSearch() {
+    return toLabels(
+        ParallelBreadthFirstSearch.search(index(), rootIds(), ForkJoinPool.commonPool()));
   }
 
   /**
-   * Helper function to get all the neighbors of a vertex.
+   * Performs a direction optimising breadth first search on the graph. Once the frontier grows
+   * large, each unvisited vertex looks for a parent in the frontier instead of the frontier
+   * scanning all of its edges. It visits the same verticies as {@link
+   * #iterativeBreadthFirstSearch()}, one level at a time, but each level is listed in ascending
+   * order rather than in queue order.
    *
-   * @param vertex The vertex we want to get the neighbors of
-   * @return A list of all the neighbors of the vertex
+   * @return a list of vertices ordered by their distance from the roots, and then by vertex.
    */
-  private List<T> getNeighbors(T vertex) {
-    // Initialise an array list to store our neighbors
-    List<T> neighbors = new ArrayList<>();
-    // Loop through all of our edges, and if the source of the edge is equal to the vertex, we will
-    // add the destination to our neighbors list.
-    for (Edge<T> edge : edges) {
-      if (edge.getSource().equals(vertex)) {
-        neighbors.add(edge.getDestination());
-      }
-    }
-    return neighbors;
+  public List<T> directionOptimizingSearch() {
+    return toLabels(DirectionOptimizingSearch.search(index(), rootIds()));
   }
 
   /**
@@ -347,199 +298,276 @@ public class Graph<T extends Comparable<T>> {
    * @return traversalOrder a list of vertices in the order they were visited.
    */
   public List<T> recursiveBreadthFirstSearch() {
-    // Intialise our traversal order, visited set, and queues for our roots and child.
-    List<T> traversalOrder = new ArrayList<>();
-    Set<T> visited = new HashSet<>();
-    Queue<T> rootQueue = new Queue<>();
-    Queue<T> childQueue = new Queue<>();
-
-    // Get the roots and then loop though them, if they are not visited, we will enqueue them to the
-    // root queue.
-    Set<T> roots = getRoots();
-    for (T root : roots) {
-      rootQueue.enqueue(root);
-      visited.add(root);
-    }
-    // Call our helper function to recursively loop through our root queue and child queue.
+    return toLabels(index().recursiveBreadthFirstSearch(rootIds()));
+  }
 
-    recursiveBreadthSearchHelper(traversalOrder, visited, rootQueue, childQueue);
+  /**
+   * Performs a recursive depth first search on the graph. We will start at the root vertices and
+   * then proceed down the tree until we reach a leaf. We will then backtrack to the next child of
+   * the root vertex and repeat the process until all vertices have been visited.
+   *
+   * @return a list of vertices in the order they were visited.
+   */
+  public List<T> recursiveDepthFirstSearch() {
+    return toLabels(index().recursiveDepthFirstSearch(rootIds()));
+  }
 
-    return traversalOrder;
+  /**
+   * Checks if there is a path from one vertex to another. Every vertex can reach itself.
+   *
+   * @param source The vertex the path starts at.
+   * @param destination The vertex the path ends at.
+   * @return <code> true </code> if the destination can be reached from the source, <code> false
+   *     </code> otherwise.
+   */
+  public boolean isReachable(T source, T destination) {
+    return !findPath(source, destination).isEmpty();
   }
 
   /**
-   * Helper function for recursive breadth first search. We will loop through our root queue and our
-   * child queue until they are both empty.
+   * Finds a shortest path from one vertex to another, counting every edge as one step. We search
+   * forwards from the source and backwards from the destination at the same time, and stop as soon
+   * as the two searches meet.
    *
-   * @param traversalOrder An array list of the nodes in the order they were visited
-   * @param visited A set of the nodes that have been visited already
-   * @param rootQueue A queue of the root nodes
-   * @param childQueue A queue of the child nodes
+   * @param source The vertex the path starts at.
+   * @param destination The vertex the path ends at.
+   * @return The verticies along the path, including both ends, or an empty list if there is no
+   *     path or either vertex is not in the graph.
    */
-  private void recursiveBreadthSearchHelper(
-      List<T> traversalOrder, Set<T> visited, Queue<T> rootQueue, Queue<T> childQueue) {
-    // If both queues are empty, we will return.
-    if (rootQueue.isEmpty() && childQueue.isEmpty()) {
-      return;
+  public List<T> findPath(T source, T destination) {
+    CsrGraph<T> graph = index();
+    int sourceId = graph.idOf(source);
+    int destinationId = graph.idOf(destination);
+    if (sourceId < 0 || destinationId < 0) {
+      return new ArrayList<>();
     }
-    // If the root queue is empty and there are still nodes in the child queue, we will loop through
-    // and finish the child queue
-    if (rootQueue.isEmpty()) {
-      while (!childQueue.isEmpty()) {
-        T currentVertex = childQueue.dequeue();
-        traversalOrder.add(currentVertex);
-
-        for (Edge<T> edge : edges) {
-          if (edge.getSource().equals(currentVertex) && !visited.contains(edge.getDestination())) {
-            childQueue.enqueue(edge.getDestination());
-            visited.add(edge.getDestination());
-          }
-        }
-      }
-      // Otherwise we will dequeue the root queue and add it to the traversal order, and then loop
-      // through all of the edges and adding the child nodes to the child queue.
-    } else {
-      T currentVertex = rootQueue.dequeue();
-      traversalOrder.add(currentVertex);
-
-      for (Edge<T> edge : edges) {
-        if (edge.getSource().equals(currentVertex) && !visited.contains(edge.getDestination())) {
-          childQueue.enqueue(edge.getDestination());
-          sortQueue(childQueue);
-          visited.add(edge.getDestination());
-        }
-      }
-    }
-    // Recursively call the function
-    recursiveBreadthSearchHelper(traversalOrder, visited, rootQueue, childQueue);
+    int[] path = graph.shortestPath(sourceId, destinationId);
+    return path == null ? new ArrayList<>() : graph.labelsOf(path);
   }
 
   /**
-   * Performs a recursive depth first search on the graph. We will start at the root vertices and
-   * then proceed down the tree until we reach a leaf. We will then backtrack to the next child of
-   * the root vertex and repeat the process until all vertices have been visited.
+   * Performs a lazy breadth first search on the graph, which yields the same verticies in the same
+   * order as {@link #iterativeBreadthFirstSearch()}. Each vertex is only visited when it is asked
+   * for, so a caller that stops early does not search the rest of the graph. The search runs over
+   * the graph as it was when the iterator was created.
    *
-   * @return a list of vertices in the order they were visited.
+   * @return an iterator of the vertices in the order they are visited.
    */
-  public List<T> recursiveDepthFirstSearch() {
-    // Intialize our traversal order and visited set
-    List<T> traversalOrder = new ArrayList<>();
-    Set<T> visited = new TreeSet<>();
-
-    // Get the roots of the graph
+  public Iterator<T> breadthFirstIterator() {
+    CsrGraph<T> graph = index();
+    return graph.labelsOf(graph.breadthFirstIterator(rootIds()));
+  }
 
-    Set<T> roots = getRoots();
+  /**
+   * Performs a lazy breadth first search on the graph as a stream, in the same order as {@link
+   * #breadthFirstIterator()}. Short circuiting operations such as <code>limit</code> or <code>
+   * anyMatch</code> stop the search as soon as they have their answer.
+   *
+   * @return a stream of the vertices in the order they are visited.
+   */
+  public Stream<T> breadthFirstStream() {
+    return CsrGraph.streamOf(breadthFirstIterator());
+  }
 
-    // Visit each root vertex and perform a recursive DFS
-    for (T root : roots) {
-      recursiveDepthSearchHelper(root, visited, traversalOrder);
-    }
+  /**
+   * Performs a lazy depth first search on the graph, which yields the same verticies in the same
+   * order as {@link #iterativeDepthFirstSearch()}. Each vertex is only visited when it is asked
+   * for, so a caller that stops early does not search the rest of the graph. The search runs over
+   * the graph as it was when the iterator was created.
+   *
+   * @return an iterator of the vertices in the order they are visited.
+   */
+  public Iterator<T> depthFirstIterator() {
+    CsrGraph<T> graph = index();
+    return graph.labelsOf(graph.depthFirstIterator(rootIds()));
+  }
 
-    return traversalOrder;
+  /**
+   * Performs a lazy depth first search on the graph as a stream, in the same order as {@link
+   * #depthFirstIterator()}. Short circuiting operations such as <code>limit</code> or <code>
+   * anyMatch</code> stop the search as soon as they have their answer.
+   *
+   * @return a stream of the vertices in the order they are visited.
+   */
+  public Stream<T> depthFirstStream() {
+    return CsrGraph.streamOf(depthFirstIterator());
   }
 
   /**
-   * Helper function to perform the recursive DFS search.
+   * Counts the edges of the transitive closure of the graph, which has an edge from A to C for
+   * every path of one or more edges from A to C. The closure is computed in parallel on the common
+   * fork join pool, without ever holding more of it than fits in a fraction of the heap.
    *
-   * @param vertex the current vertex we are visiting
-   * @param visited the total set of vertices that have been visited already
-   * @param traversalOrder the order in which the vertices were visited
+   * @return The number of edges in the transitive closure.
    */
-  private void recursiveDepthSearchHelper(T vertex, Set<T> visited, List<T> traversalOrder) {
-    // Add the current vertex to our visited set and traversal order
-    visited.add(vertex);
-    traversalOrder.add(vertex);
+  public long getTransitiveClosureSize() {
+    return TransitiveClosure.edgeCount(index(), ForkJoinPool.commonPool());
+  }
 
-    List<T> neighbours = getNeighbors(vertex);
-    // Sort the neighbors in ascending order
-    List<Integer> intNeighbors = new ArrayList<>();
-    for (int i = 0; i < neighbours.size(); i++) {
-      intNeighbors.add(Integer.parseInt(neighbours.get(i).toString()));
+  /**
+   * Writes the transitive closure of the graph in the same dot format the test cases use, so it
+   * can be opened again. Edges are written in order of source and then destination, and verticies
+   * with no edges in the closure are written on their own.
+   *
+   * @param out Where to write the closure.
+   * @throws IOException If the closure cannot be written.
+   */
+  public void writeTransitiveClosure(Appendable out) throws IOException {
+    CsrGraph<T> graph = index();
+    int words = Bitmaps.create(graph.vertexCount()).length;
+    out.append("digraph closure {").append(System.lineSeparator());
+    for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+      if (graph.outDegree(vertex) == 0 && graph.inDegree(vertex) == 0) {
+        out.append("  ").append(String.valueOf(graph.labelOf(vertex)));
+        out.append(";").append(System.lineSeparator());
+      }
     }
-    sortArrayList(intNeighbors);
-    neighbours.clear();
-    for (int i = 0; i < intNeighbors.size(); i++) {
-      neighbours.add((T) intNeighbors.get(i).toString());
+
+    try {
+      TransitiveClosure.forEachRow(
+          graph,
+          ForkJoinPool.commonPool(),
+          (source, rows, offset) -> {
+            for (int word = 0; word < words; word++) {
+              long bits = rows[offset + word];
+              while (bits != 0) {
+                int destination = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                writeEdge(out, graph.labelOf(source), graph.labelOf(destination));
+              }
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
+    out.append("}").append(System.lineSeparator());
+  }
+
+  /**
+   * Takes an immutable snapshot of the graph as it is now. Every property, the roots and the
+   * equivalence classes are computed while the snapshot is taken, so the snapshot can then be
+   * searched and queried by many threads at once.
+   *
+   * @return A snapshot of the current version of the graph.
+   */
+  public GraphSnapshot<T> snapshot() {
+    GraphProperties properties = analyze();
+    EquivalencePartition partition = properties.isEquivalence() ? getPartition() : null;
+    return new GraphSnapshot<>(index(), ordering, properties, rootIds(), partition);
+  }
+
+  /**
+   * Helper function that gets the ids of the roots, in ascending order.
+   *
+   * @return The ids of the roots.
+   */
+  private int[] rootIds() {
+    return cache().roots(() -> index().roots(isEquivalence() ? getPartition() : null));
+  }
+
+  /**
+   * Helper function that gets the equivalence classes of the graph. The partition is built with a
+   * union-find the first time it is needed in each version of the graph.
+   *
+   * @return The equivalence classes of the graph.
+   */
+  private EquivalencePartition getPartition() {
+    return cache().partition(() -> new EquivalencePartition(index()));
+  }
 
-    // Visit all neighbors of the current vertex and perform a recursive DFS on them if they have
-    // not been visited yet
-    for (T neighbour : neighbours) {
-      if (!visited.contains(neighbour)) {
-        recursiveDepthSearchHelper(neighbour, visited, traversalOrder);
+  /**
+   * Helper function that gets the CSR index of the graph, rebuilding it if the graph has changed
+   * since it was last built.
+   *
+   * @return The CSR index of the current version of the graph.
+   */
+  private CsrGraph<T> index() {
+    if (indexedVersion != version) {
+      if (edges != null) {
+        csr = new CsrGraph<>(verticies, edges, ordering, storage);
+      } else {
+        // We will rebuild from the old index, streaming its edges followed by the added ones
+        List<T> allVerticies = new ArrayList<>(csr.labels());
+        allVerticies.addAll(addedVerticies);
+        csr = new CsrGraph<>(allVerticies, csr.edgesWith(addedEdges), ordering, storage);
+        addedVerticies.clear();
+        addedEdges.clear();
       }
+      indexedVersion = version;
     }
+    return csr;
   }
 
   /**
-   * A Helper function that that sorts an array list of type Integer in ascending order.
+   * Helper function that adds a vertex to the vertex set, or with off heap storage, to the
+   * verticies waiting for the next rebuild.
    *
-   * @param list The list to be sorted
-   * @return The sorted list
+   * @param vertex The vertex to add.
+   * @return <code> true </code> if the vertex was not already in the graph, <code> false </code>
+   *     otherwise.
    */
-  private List<Integer> sortArrayList(List<Integer> list) {
-    // We will loop through the list and swap elements if the current element is greater than the
-    // other element
-    for (int i = 0; i < list.size(); i++) {
-      for (int j = 0; j < list.size(); j++) {
-        if (list.get(i) < list.get(j)) {
-          int temp = list.get(i);
-          list.set(i, list.get(j));
-          list.set(j, temp);
-        }
-      }
+  private boolean addToVerticies(T vertex) {
+    if (verticies != null) {
+      return verticies.add(vertex);
     }
-    // Return the sorted list
-    return list;
+    return csr.idOf(vertex) < 0 && addedVerticies.add(vertex);
   }
 
   /**
-   * A helper function that sorts a queue in ascending order.
+   * Helper function that adds an edge to the edge set, or with off heap storage, to the edges
+   * waiting for the next rebuild.
    *
-   * @param queue The queue to be sorted
-   * @return The sorted queue
+   * @param edge The edge to add.
+   * @return <code> true </code> if the edge was not already in the graph, <code> false </code>
+   *     otherwise.
    */
-  private Queue<T> sortQueue(Queue<T> queue) {
-    // We will dequeue all elements from the queue and add them to an array list
-    List<Integer> list = new ArrayList<>();
-    while (!queue.isEmpty()) {
-      list.add(Integer.parseInt(queue.dequeue().toString()));
+  private boolean addToEdges(Edge<T> edge) {
+    if (edges != null) {
+      return edges.add(edge);
     }
-    // Sort the array list and add the elements back into the queue in ascending order
-    list = sortArrayList(list);
-    for (Integer element : list) {
-      queue.enqueue((T) element.toString());
+    int source = csr.idOf(edge.getSource());
+    int destination = csr.idOf(edge.getDestination());
+    if (source >= 0 && destination >= 0 && csr.hasEdge(source, destination)) {
+      return false;
     }
-    return queue;
+    return addedEdges.add(edge);
   }
 
   /**
-   * A Helper function that finds the minimum value in a set.
+   * Helper function that gets the property cache, emptied if the graph has changed since the
+   * cached results were computed.
    *
-   * @param set The set to be searched
-   * @return The minimum value in the set
+   * @return The property cache for the current version of the graph.
    */
-  private T getMinValue(Set<T> set) {
-    T min = null;
-    for (T element : set) {
-      if (min == null || element.compareTo(min) < 0) {
-        min = element;
-      }
-    }
-    return min;
+  private PropertyCache cache() {
+    cache.validate(version);
+    return cache;
   }
 
   /**
-   * A helper function that will reverse the order of a list.
+   * Helper function that writes one edge of a dot file.
    *
-   * @param list List to be reversed
-   * @return The reversed list
+   * @param out Where to write the edge.
+   * @param source The source of the edge.
+   * @param destination The destination of the edge.
+   * @throws UncheckedIOException If the edge cannot be written.
    */
-  private List<T> reverseList(List<T> list) {
-    List<T> reversedList = new ArrayList<>();
-    for (int i = list.size() - 1; i >= 0; i--) {
-      reversedList.add(list.get(i));
+  private static void writeEdge(Appendable out, Object source, Object destination) {
+    try {
+      out.append("  ").append(String.valueOf(source)).append(" -> ");
+      out.append(String.valueOf(destination)).append(";").append(System.lineSeparator());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-    return reversedList;
+  }
+
+  /**
+   * Helper function that turns vertex ids back into their labels.
+   *
+   * @param ids The vertex ids.
+   * @return A list of the labels, in the same order as the ids.
+   */
+  private List<T> toLabels(int[] ids) {
+    return index().labelsOf(ids);
   }
 }
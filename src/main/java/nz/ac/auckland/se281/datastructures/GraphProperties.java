@@ -0,0 +1,121 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A report of every relation property of a graph: reflexivity, symmetry, anti-symmetry,
+ * transitivity and equivalence.
+ *
+ * <p>Reflexivity comes straight from the self loop count recorded when the graph was built. The
+ * other properties are computed in a single fused pass over the CSR adjacency. For each vertex A we
+ * mark its successors in a bitmap once, and then share that bitmap between every check:
+ *
+ * <ul>
+ *   <li>For every predecessor B of A, the edge B to A is symmetric if B's bit is set, and breaks
+ *       anti-symmetry if B's bit is set and B is not A.
+ *   <li>For every successor B of A, transitivity holds if every successor of B has its bit set.
+ * </ul>
+ */
+public class GraphProperties {
+  private final boolean reflexive;
+  private final boolean symmetric;
+  private final boolean antiSymmetric;
+  private final boolean transitive;
+
+  private GraphProperties(
+      boolean reflexive, boolean symmetric, boolean antiSymmetric, boolean transitive) {
+    this.reflexive = reflexive;
+    this.symmetric = symmetric;
+    this.antiSymmetric = antiSymmetric;
+    this.transitive = transitive;
+  }
+
+  /**
+   * Analyzes every relation property of a graph in one pass over its adjacency. The pass stops
+   * early once symmetry, anti-symmetry and transitivity have all failed.
+   *
+   * @param graph The graph to analyze.
+   * @return The report of the graph's properties.
+   */
+  static GraphProperties analyze(CsrGraph<?> graph) {
+    boolean reflexive = graph.isReflexive();
+    boolean symmetric = true;
+    boolean antiSymmetric = true;
+    boolean transitive = true;
+    long[] successors = Bitmaps.create(graph.vertexCount());
+
+    for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+      if (!symmetric && !antiSymmetric && !transitive) {
+        break;
+      }
+      for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+        Bitmaps.set(successors, graph.outTarget(i));
+      }
+
+      // Every edge of the graph is the in-edge of exactly one vertex, so this covers every edge
+      for (int i = graph.inStart(vertex); i < graph.inEnd(vertex); i++) {
+        int predecessor = graph.inSource(i);
+        if (predecessor != vertex) {
+          if (Bitmaps.get(successors, predecessor)) {
+            antiSymmetric = false;
+          } else {
+            symmetric = false;
+          }
+        }
+      }
+
+      if (transitive) {
+        transitive = TransitivityChecker.successorsAreClosed(graph, vertex, successors);
+      }
+
+      for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+        Bitmaps.clear(successors, graph.outTarget(i));
+      }
+    }
+    return new GraphProperties(reflexive, symmetric, antiSymmetric, transitive);
+  }
+
+  /**
+   * Checks if the graph has a self loop for every vertex.
+   *
+   * @return <code> true </code> if the graph is reflexive, <code> false </code> otherwise.
+   */
+  public boolean isReflexive() {
+    return reflexive;
+  }
+
+  /**
+   * Checks if every edge from A to B has a matching edge from B to A.
+   *
+   * @return <code> true </code> if the graph is symmetric, <code> false </code> otherwise.
+   */
+  public boolean isSymmetric() {
+    return symmetric;
+  }
+
+  /**
+   * Checks that no two distinct verticies have edges in both directions.
+   *
+   * @return <code> true </code> if the graph is anti-symmetric, <code> false </code> otherwise.
+   */
+  public boolean isAntiSymmetric() {
+    return antiSymmetric;
+  }
+
+  /**
+   * Checks that for every edge from A to B and B to C there is also an edge from A to C.
+   *
+   * @return <code> true </code> if the graph is transitive, <code> false </code> otherwise.
+   */
+  public boolean isTransitive() {
+    return transitive;
+  }
+
+  /**
+   * Checks if the graph is reflexive, symmetric and transitive.
+   *
+   * @return <code> true </code> if the graph is an equivalence relation, <code> false </code>
+   *     otherwise.
+   */
+  public boolean isEquivalence() {
+    return reflexive && symmetric && transitive;
+  }
+}
@@ -0,0 +1,273 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * An immutable, frozen copy of a {@link Graph}. A snapshot does not hold on to the sets the graph
+ * was built from, and every property, the roots and the equivalence classes are computed while it
+ * is taken. Everything it holds is reached through final fields and never changed afterwards, so a
+ * snapshot can be shared with any number of threads, which can all search it and check its
+ * properties at once without any locking.
+ *
+ * <p>Later changes to the graph do not affect a snapshot that was already taken.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public final class GraphSnapshot<T extends Comparable<T>> {
+  private final CsrGraph<T> graph;
+  private final Comparator<? super T> ordering;
+  private final GraphProperties properties;
+  private final int[] roots;
+  private final EquivalencePartition partition;
+
+  /**
+   * Creates a snapshot over a CSR index. The index is never changed once built, so it can be shared
+   * with the graph it came from.
+   *
+   * @param graph The CSR index of the graph.
+   * @param ordering The comparator that decides the order of the verticies.
+   * @param properties The properties of the graph.
+   * @param roots The ids of the roots, in ascending order.
+   * @param partition The equivalence classes, or <code>null</code> if the graph is not an
+   *     equivalence relation.
+   */
+  GraphSnapshot(
+      CsrGraph<T> graph,
+      Comparator<? super T> ordering,
+      GraphProperties properties,
+      int[] roots,
+      EquivalencePartition partition) {
+    this.graph = graph;
+    this.ordering = ordering;
+    this.properties = properties;
+    this.roots = roots.clone();
+    this.partition = partition;
+  }
+
+  /**
+   * Gets the number of verticies in the snapshot.
+   *
+   * @return The number of verticies.
+   */
+  public int vertexCount() {
+    return graph.vertexCount();
+  }
+
+  /**
+   * Gets the number of edges in the snapshot.
+   *
+   * @return The number of edges.
+   */
+  public int edgeCount() {
+    return graph.edgeCount();
+  }
+
+  /**
+   * Gets the roots of the graph, in ascending order.
+   *
+   * @return A set of all the roots in the graph.
+   */
+  public Set<T> getRoots() {
+    return new LinkedHashSet<>(graph.labelsOf(roots));
+  }
+
+  /**
+   * Gets every relation property of the graph, computed when the snapshot was taken.
+   *
+   * @return A report of the properties of the graph.
+   */
+  public GraphProperties analyze() {
+    return properties;
+  }
+
+  /**
+   * Checks if the graph is reflexive.
+   *
+   * @return <code> true </code> if the graph is reflexive, <code> false </code> otherwise.
+   */
+  public boolean isReflexive() {
+    return properties.isReflexive();
+  }
+
+  /**
+   * Checks if the graph is symmetric.
+   *
+   * @return <code> true </code> if the graph is symmetric, <code> false </code> otherwise.
+   */
+  public boolean isSymmetric() {
+    return properties.isSymmetric();
+  }
+
+  /**
+   * Checks if the graph is anti-symmetric.
+   *
+   * @return <code> true </code> if the graph is anti-symmetric, <code> false </code> otherwise.
+   */
+  public boolean isAntiSymmetric() {
+    return properties.isAntiSymmetric();
+  }
+
+  /**
+   * Checks if the graph is transitive.
+   *
+   * @return <code> true </code> if the graph is transitive, <code> false </code> otherwise.
+   */
+  public boolean isTransitive() {
+    return properties.isTransitive();
+  }
+
+  /**
+   * Checks if the graph is an equivalence relation.
+   *
+   * @return <code> true </code> if the graph is an equivalence relation, <code> false </code>
+   *     otherwise.
+   */
+  public boolean isEquivalence() {
+    return properties.isEquivalence();
+  }
+
+  /**
+   * Gets the verticies that stop the graph from being reflexive.
+   *
+   * @return The verticies that do not have a self loop, in ascending order.
+   */
+  public Set<T> getVerticiesWithoutSelfLoop() {
+    return new LinkedHashSet<>(graph.labelsOf(graph.verticesWithoutSelfLoop()));
+  }
+
+  /**
+   * Gets the equivalence class of a vertex.
+   *
+   * @param vertex The vertex we want to get the equivalence class of.
+   * @return A set of vertices that are equivalent to the vertex passed in, which is empty if the
+   *     graph is not an equivalence relation.
+   */
+  public Set<T> getEquivalenceClass(T vertex) {
+    Set<T> equivalenceClass = new TreeSet<>(ordering);
+    if (partition == null) {
+      return equivalenceClass;
+    }
+    equivalenceClass.add(vertex);
+    int id = graph.idOf(vertex);
+    if (id >= 0) {
+      equivalenceClass.addAll(graph.labelsOf(partition.members(id)));
+    }
+    return equivalenceClass;
+  }
+
+  /**
+   * Performs a breadth first search on the graph, in the same order as {@link
+   * Graph#iterativeBreadthFirstSearch()}.
+   *
+   * @return a list of vertices in the order they were visited.
+   */
+  public List<T> iterativeBreadthFirstSearch() {
+    return graph.labelsOf(graph.iterativeBreadthFirstSearch(roots));
+  }
+
+  /**
+   * Performs a depth first search on the graph, in the same order as {@link
+   * Graph#iterativeDepthFirstSearch()}.
+   *
+   * @return a list of vertices in the order they were visited.
+   */
+  public List<T> iterativeDepthFirstSearch() {
+    return graph.labelsOf(graph.iterativeDepthFirstSearch(roots));
+  }
+
+  /**
+   * Performs a breadth first search on the graph, expanding each level across the threads of the
+   * common fork join pool. The verticies are visited in the same order as {@link
+   * #iterativeBreadthFirstSearch()}, however many threads take part.
+   *
+   * @return a list of vertices in the order they were visited.
+   */
+  public List<T> parallelBreadthFirstSearch() {
+    return graph.labelsOf(
+        ParallelBreadthFirstSearch.search(graph, roots, ForkJoinPool.commonPool()));
+  }
+
+  /**
+   * Performs a direction optimising breadth first search on the graph. Once the frontier grows
+   * large, each unvisited vertex looks for a parent in the frontier instead of the frontier
+   * scanning all of its edges. It visits the same verticies as {@link
+   * #iterativeBreadthFirstSearch()}, one level at a time, but each level is listed in ascending
+   * order rather than in queue order.
+   *
+   * @return a list of vertices ordered by their distance from the roots, and then by vertex.
+   */
+  public List<T> directionOptimizingSearch() {
+    return graph.labelsOf(DirectionOptimizingSearch.search(graph, roots));
+  }
+
+  /**
+   * Performs a recursive breadth first search on the graph, in the same order as {@link
+   * Graph#recursiveBreadthFirstSearch()}.
+   *
+   * @return a list of vertices in the order they were visited.
+   */
+  public List<T> recursiveBreadthFirstSearch() {
+    return graph.labelsOf(graph.recursiveBreadthFirstSearch(roots));
+  }
+
+  /**
+   * Performs a recursive depth first search on the graph, in the same order as {@link
+   * Graph#recursiveDepthFirstSearch()}.
+   *
+   * @return a list of vertices in the order they were visited.
+   */
+  public List<T> recursiveDepthFirstSearch() {
+    return graph.labelsOf(graph.recursiveDepthFirstSearch(roots));
+  }
+
+  /**
+   * Performs a lazy breadth first search on the graph, which yields the same verticies in the same
+   * order as {@link #iterativeBreadthFirstSearch()}. Each vertex is only visited when it is asked
+   * for, so a caller that stops early does not search the rest of the graph.
+   *
+   * @return an iterator of the vertices in the order they are visited.
+   */
+  public Iterator<T> breadthFirstIterator() {
+    return graph.labelsOf(graph.breadthFirstIterator(roots));
+  }
+
+  /**
+   * Performs a lazy breadth first search on the graph as a stream, in the same order as {@link
+   * #breadthFirstIterator()}. Short circuiting operations such as <code>limit</code> or <code>
+   * anyMatch</code> stop the search as soon as they have their answer.
+   *
+   * @return a stream of the vertices in the order they are visited.
+   */
+  public Stream<T> breadthFirstStream() {
+    return CsrGraph.streamOf(breadthFirstIterator());
+  }
+
+  /**
+   * Performs a lazy depth first search on the graph, which yields the same verticies in the same
+   * order as {@link #iterativeDepthFirstSearch()}. Each vertex is only visited when it is asked
+   * for, so a caller that stops early does not search the rest of the graph.
+   *
+   * @return an iterator of the vertices in the order they are visited.
+   */
+  public Iterator<T> depthFirstIterator() {
+    return graph.labelsOf(graph.depthFirstIterator(roots));
+  }
+
+  /**
+   * Performs a lazy depth first search on the graph as a stream, in the same order as {@link
+   * #depthFirstIterator()}. Short circuiting operations such as <code>limit</code> or <code>
+   * anyMatch</code> stop the search as soon as they have their answer.
+   *
+   * @return a stream of the vertices in the order they are visited.
+   */
+  public Stream<T> depthFirstStream() {
+    return CsrGraph.streamOf(depthFirstIterator());
+  }
+}
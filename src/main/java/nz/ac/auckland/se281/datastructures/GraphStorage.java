@@ -0,0 +1,95 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Decides where a {@link Graph} keeps its adjacency arrays. By default they are plain arrays on the
+ * heap. A graph that is too large for the heap can instead keep them in memory mapped files, which
+ * the operating system pages in as the searches and property checks read them.
+ *
+ * <p>The arrays are written straight into the storage as the graph is built. A graph with off heap
+ * storage also lets go of the vertex and edge sets it was given once they are indexed, so only the
+ * vertex labels and their ids stay on the heap.
+ */
+public abstract class GraphStorage {
+  private static final GraphStorage HEAP = new HeapStorage();
+
+  private GraphStorage() {}
+
+  /**
+   * Gets the storage that keeps the adjacency arrays on the heap. This is the fastest storage, and
+   * the one every graph uses unless it is given another.
+   *
+   * @return The heap storage.
+   */
+  public static GraphStorage heap() {
+    return HEAP;
+  }
+
+  /**
+   * Gets a storage that keeps the adjacency arrays in memory mapped files. The files are created in
+   * the given directory and removed again once they are mapped.
+   *
+   * @param directory The directory to create the files in.
+   * @return The memory mapped storage.
+   */
+  public static GraphStorage mapped(Path directory) {
+    return new MappedStorage(directory);
+  }
+
+  /**
+   * Creates a store for one of the adjacency arrays, with every value zero.
+   *
+   * @param length The number of values in the array.
+   * @return The new store.
+   */
+  abstract IntStore allocate(int length);
+
+  /**
+   * Checks if the storage keeps the adjacency arrays off the heap. A graph on the heap also keeps a
+   * hash set of every edge, which makes each edge lookup a single probe but costs memory for every
+   * edge. A graph off the heap finds edges with a binary search of the sorted rows instead, and
+   * does not keep the sets it was built from.
+   *
+   * @return <code> true </code> if the arrays are off the heap, <code> false </code> otherwise.
+   */
+  abstract boolean isOffHeap();
+
+  /** The storage that keeps the arrays on the heap. */
+  private static final class HeapStorage extends GraphStorage {
+    @Override
+    IntStore allocate(int length) {
+      return new HeapIntStore(length);
+    }
+
+    @Override
+    boolean isOffHeap() {
+      return false;
+    }
+  }
+
+  /** The storage that keeps the arrays in memory mapped files. */
+  private static final class MappedStorage extends GraphStorage {
+    private final Path directory;
+
+    MappedStorage(Path directory) {
+      this.directory = directory;
+    }
+
+    @Override
+    IntStore allocate(int length) {
+      try {
+        return new MappedIntStore(directory, length);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not map the graph into " + directory, e);
+      }
+    }
+
+    @Override
+    boolean isOffHeap() {
+      return true;
+    }
+  }
+}
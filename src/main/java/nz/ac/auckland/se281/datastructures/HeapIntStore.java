@@ -0,0 +1,40 @@
+package nz.ac.auckland.se281.datastructures;
+
+/** An {@link IntStore} over a plain <code>int[]</code> on the heap. */
+final class HeapIntStore implements IntStore {
+  private final int[] values;
+
+  /**
+   * Creates a store of the given length, with every value zero.
+   *
+   * @param length The number of values.
+   */
+  HeapIntStore(int length) {
+    this.values = new int[length];
+  }
+
+  @Override
+  public int get(int index) {
+    return values[index];
+  }
+
+  @Override
+  public void set(int index, int value) {
+    values[index] = value;
+  }
+
+  @Override
+  public void copyTo(int from, int[] destination, int offset, int count) {
+    System.arraycopy(values, from, destination, offset, count);
+  }
+
+  @Override
+  public void copyFrom(int[] source, int offset, int to, int count) {
+    System.arraycopy(source, offset, values, to, count);
+  }
+
+  @Override
+  public int length() {
+    return values.length;
+  }
+}
@@ -0,0 +1,119 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An ordered queue of <code>int</code> values, such as vertex ids, that always dequeues its
+ * smallest value first. The values are kept in a binary heap in an <code>int[]</code>, so enqueue
+ * and dequeue take O(log n) time and nothing is boxed or allocated per element.
+ */
+public class IntOrderedQueue {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] heap = new int[INITIAL_CAPACITY];
+  private int size = 0;
+
+  /**
+   * Add a value to the queue, in its place in the ordering.
+   *
+   * @param value The value to add to the queue.
+   */
+  public void enqueue(int value) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, heap.length * 2);
+    }
+    // Place the value at the bottom of the heap, then swap it upwards past any larger parent
+    int index = size++;
+    while (index > 0) {
+      int parent = (index - 1) / 2;
+      if (value >= heap[parent]) {
+        break;
+      }
+      heap[index] = heap[parent];
+      index = parent;
+    }
+    heap[index] = value;
+  }
+
+  /**
+   * Remove the smallest value from the queue and return it.
+   *
+   * @return The smallest value in the queue.
+   * @throws NoSuchElementException If the queue is empty.
+   */
+  public int dequeue() {
+    int smallest = peek();
+    int last = heap[--size];
+    if (size > 0) {
+      // Move the last value to the top of the heap, then swap it downwards past any smaller child
+      int index = 0;
+      while (index * 2 + 1 < size) {
+        int child = index * 2 + 1;
+        if (child + 1 < size && heap[child + 1] < heap[child]) {
+          child++;
+        }
+        if (last <= heap[child]) {
+          break;
+        }
+        heap[index] = heap[child];
+        index = child;
+      }
+      heap[index] = last;
+    }
+    return smallest;
+  }
+
+  /**
+   * Return the smallest value in the queue without removing it.
+   *
+   * @return The smallest value in the queue.
+   * @throws NoSuchElementException If the queue is empty.
+   */
+  public int peek() {
+    if (size == 0) {
+      throw new NoSuchElementException("The queue is empty");
+    }
+    return heap[0];
+  }
+
+  /**
+   * Return the size of the queue.
+   *
+   * @return The size of the queue.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks if a queue is empty.
+   *
+   * @return <code>true</code> if the queue is empty, <code>false</code> otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Removes every value from the queue, keeping its capacity for reuse. */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Gets the number of values the queue can hold before it has to grow.
+   *
+   * @return The capacity of the queue.
+   */
+  int capacity() {
+    return heap.length;
+  }
+
+  // When we print an ordered queue, we print its values in the order they would be dequeued.
+  @Override
+  public String toString() {
+    int[] values = Arrays.copyOf(heap, size);
+    Arrays.sort(values);
+    return Arrays.toString(values);
+  }
+}
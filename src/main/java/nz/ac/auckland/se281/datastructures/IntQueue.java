@@ -0,0 +1,126 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A first in first out queue of <code>int</code> values, such as vertex ids. It works like {@link
+ * Queue}, but stores the values in a circular <code>int[]</code> so nothing is boxed or allocated
+ * per element.
+ */
+public class IntQueue {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] elements;
+  private int head = 0;
+  private int size = 0;
+
+  /** Creates an empty queue. */
+  public IntQueue() {
+    this(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates an empty queue that can hold the given number of values before it has to grow.
+   *
+   * @param capacity The initial capacity of the queue.
+   */
+  public IntQueue(int capacity) {
+    elements = new int[Math.max(capacity, 1)];
+  }
+
+  /**
+   * Add a value to the end of the queue.
+   *
+   * @param value The value to add to the queue.
+   */
+  public void enqueue(int value) {
+    if (size == elements.length) {
+      grow();
+    }
+    int tail = head + size;
+    elements[tail < elements.length ? tail : tail - elements.length] = value;
+    size++;
+  }
+
+  /**
+   * Remove a value from the front of the queue and return it.
+   *
+   * @return The value at the front of the queue.
+   * @throws NoSuchElementException If the queue is empty.
+   */
+  public int dequeue() {
+    int value = peek();
+    head = head + 1 == elements.length ? 0 : head + 1;
+    size--;
+    return value;
+  }
+
+  /**
+   * Return the value at the front of the queue without removing it.
+   *
+   * @return The value at the front of the queue.
+   * @throws NoSuchElementException If the queue is empty.
+   */
+  public int peek() {
+    if (size == 0) {
+      throw new NoSuchElementException("The queue is empty");
+    }
+    return elements[head];
+  }
+
+  /**
+   * Return the size of the queue.
+   *
+   * @return The size of the queue.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks if a queue is empty.
+   *
+   * @return <code>true</code> if the queue is empty, <code>false</code> otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Removes every value from the queue, keeping its capacity for reuse. */
+  public void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  /**
+   * Gets the number of values the queue can hold before it has to grow.
+   *
+   * @return The capacity of the queue.
+   */
+  int capacity() {
+    return elements.length;
+  }
+
+  /** Doubles the capacity of the queue, unwrapping its values to the start of the new array. */
+  private void grow() {
+    int[] grown = new int[elements.length * 2];
+    int firstPart = Math.min(size, elements.length - head);
+    System.arraycopy(elements, head, grown, 0, firstPart);
+    System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+    elements = grown;
+    head = 0;
+  }
+
+  // When we print a queue, we will print its values from front to back, such as [1, 2, 3].
+  @Override
+  public String toString() {
+    StringBuilder string = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        string.append(", ");
+      }
+      string.append(elements[(head + i) % elements.length]);
+    }
+    return string.append("]").toString();
+  }
+}
@@ -0,0 +1,135 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A last in first out stack of <code>int</code> values, such as vertex ids. It works like {@link
+ * Stack}, but stores the values in an <code>int[]</code> so nothing is boxed or allocated per
+ * element.
+ */
+public class IntStack {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] elements;
+  private int size = 0;
+
+  /** Creates an empty stack. */
+  public IntStack() {
+    this(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates an empty stack that can hold the given number of values before it has to grow.
+   *
+   * @param capacity The initial capacity of the stack.
+   */
+  public IntStack(int capacity) {
+    elements = new int[Math.max(capacity, 1)];
+  }
+
+  /**
+   * Add a value to the top of the stack.
+   *
+   * @param value The value to add to the stack.
+   */
+  public void push(int value) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, elements.length * 2);
+    }
+    elements[size++] = value;
+  }
+
+  /**
+   * Pushes a slice of an array in reverse, so that <code>values[from]</code> ends up on top of the
+   * stack. This is used to push an already sorted neighbour list so the smallest neighbour is
+   * popped first.
+   *
+   * @param values The array holding the slice.
+   * @param from The index of the first value in the slice.
+   * @param to The index one past the last value in the slice.
+   */
+  public void pushReversed(int[] values, int from, int to) {
+    int count = to - from;
+    if (size + count > elements.length) {
+      elements = Arrays.copyOf(elements, Math.max(elements.length * 2, size + count));
+    }
+    for (int i = to - 1; i >= from; i--) {
+      elements[size++] = values[i];
+    }
+  }
+
+  /**
+   * Remove a value from the top of the stack and return it.
+   *
+   * @return The value at the top of the stack.
+   * @throws NoSuchElementException If the stack is empty.
+   */
+  public int pop() {
+    int value = peek();
+    size--;
+    return value;
+  }
+
+  /**
+   * Return the value at the top of the stack without removing it.
+   *
+   * @return The value at the top of the stack.
+   * @throws NoSuchElementException If the stack is empty.
+   */
+  public int peek() {
+    if (size == 0) {
+      throw new NoSuchElementException("The stack is empty");
+    }
+    return elements[size - 1];
+  }
+
+  /**
+   * Return the size of the stack.
+   *
+   * @return The size of the stack.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks if a stack is empty.
+   *
+   * @return <code>true</code> if the stack is empty, <code>false</code> otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Removes every value from the stack, keeping its capacity for reuse. */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Gets the number of values the stack can hold before it has to grow.
+   *
+   * @return The capacity of the stack.
+   */
+  int capacity() {
+    return elements.length;
+  }
+
+  /**
+   * Override the toString method to print the stack from top to bottom, such as [3, 2, 1].
+   *
+   * @return The stack from top to bottom.
+   */
+  @Override
+  public String toString() {
+    StringBuilder string = new StringBuilder("[");
+    for (int i = size - 1; i >= 0; i--) {
+      string.append(elements[i]);
+      if (i > 0) {
+        string.append(", ");
+      }
+    }
+    return string.append("]").toString();
+  }
+}
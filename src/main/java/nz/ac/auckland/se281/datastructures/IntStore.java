@@ -0,0 +1,56 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A fixed length sequence of <code>int</code> values that holds one of the CSR arrays of a {@link
+ * CsrGraph}. Hiding the arrays behind this interface lets the same graph code run whether the
+ * values are in a heap array or in a memory mapped file.
+ *
+ * <p>A store starts out with every value zero. The graph writes its values while it is being
+ * built, and only reads them afterwards.
+ */
+interface IntStore {
+
+  /**
+   * Gets the value at a position.
+   *
+   * @param index The position of the value.
+   * @return The value at that position.
+   */
+  int get(int index);
+
+  /**
+   * Sets the value at a position.
+   *
+   * @param index The position of the value.
+   * @param value The new value.
+   */
+  void set(int index, int value);
+
+  /**
+   * Copies a range of values into an array, which is much faster than getting them one at a time.
+   *
+   * @param from The position of the first value to copy.
+   * @param destination The array to copy the values into.
+   * @param offset The position in the array to copy the first value to.
+   * @param count The number of values to copy.
+   */
+  void copyTo(int from, int[] destination, int offset, int count);
+
+  /**
+   * Copies a range of an array into the store, which is much faster than setting the values one at
+   * a time.
+   *
+   * @param source The array to copy the values from.
+   * @param offset The position in the array of the first value to copy.
+   * @param to The position in the store to copy the first value to.
+   * @param count The number of values to copy.
+   */
+  void copyFrom(int[] source, int offset, int to, int count);
+
+  /**
+   * Gets the number of values in the store.
+   *
+   * @return The number of values.
+   */
+  int length();
+}
@@ -1,14 +1,47 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
 /**
  * A linked list is a data structure that stores a list of items via nodes.
  *
+ * <p>The list is unrolled: each {@link ChunkNode} holds a small array of items rather than a single
+ * item, so there is far less per-item overhead and a scan reads items that sit next to each other
+ * in memory. The list also remembers the last chunk it looked up, so walking through the list with
+ * {@link #get(int)} in order only moves one chunk at a time.
+ *
+ * <p>A list can be given a {@link NodePool}, so that chunks freed by {@link #remove(int)} are
+ * recycled when the list grows again rather than allocated afresh.
+ *
  * @param <T> The type of data to store in the list.
  */
-public class LinkedList<T> {
-  private Node<T> head = null;
-  private Node<T> tail = null;
+public class LinkedList<T> implements Iterable<T> {
+  private ChunkNode<T> head = null;
+  private ChunkNode<T> tail = null;
   private int listcount = 0;
+  private int modCount = 0;
+  private final NodePool<T> pool;
+
+  // The chunk found by the last lookup, and the list index of its first item
+  private ChunkNode<T> cursor = null;
+  private int cursorStart = 0;
+
+  /** Creates an empty list that allocates a new chunk whenever it needs one. */
+  public LinkedList() {
+    this(new NodePool<>(0));
+  }
+
+  /**
+   * Creates an empty list that takes its chunks from, and returns them to, a node pool.
+   *
+   * @param pool The pool to recycle chunks through.
+   */
+  public LinkedList(NodePool<T> pool) {
+    this.pool = pool;
+  }
 
   /**
    * Add an item to the end of the list.
@@ -16,43 +49,33 @@ public class LinkedList<T> {
    * @param data The data to add to the list.
    */
   public void add(T data) {
-    Node<T> temp = new Node<T>(data);
-    // If there is no current head, set the new node as the head.
-    if (head == null) {
-      head = temp;
-    } else {
-      // Otherwise, set the new node as the tail and link it to the previous node.
-      tail.setNext(temp);
-      temp.setPrev(tail);
+    // Only start a new chunk once the tail is full
+    if (tail == null || tail.isFull()) {
+      ChunkNode<T> chunk = pool.acquire();
+      if (tail == null) {
+        head = chunk;
+      } else {
+        tail.setNext(chunk);
+        chunk.setPrev(tail);
+      }
+      tail = chunk;
     }
-    // Set the new node as the tail.
-    tail = temp;
+    tail.insert(tail.getCount(), data);
     listcount++;
+    modCount++;
   }
 
   /**
-   * Retrive a node from the list at the specified index.
+   * Retrive an item from the list at the specified index.
    *
-   * @param index The index of the node to get
+   * @param index The index of the item to get
    * @return The data at the specified index.
+   * @throws IndexOutOfBoundsException If the index is not in the list.
    */
   public T get(int index) {
-    Node<T> current = head;
-    // If the index is 0, return the head.
-    if (index == 0) {
-      return current.getData();
-    }
-    // Otherwise, iterate through the list until we reach the index.
-    if (head != null) {
-      for (int i = 0; i < index; i++) {
-        if (current.getNext() == null) {
-          return null;
-        }
-        current = current.getNext();
-      }
-    }
-    // Return the data at the index.
-    return current.getData();
+    Objects.checkIndex(index, listcount);
+    ChunkNode<T> chunk = locate(index);
+    return chunk.get(index - cursorStart);
   }
 
   /**
@@ -60,68 +83,56 @@ public class LinkedList<T> {
    *
    * @param index The index to insert the item at.
    * @param data The data to insert.
+   * @throws IndexOutOfBoundsException If the index is not in the list or just past its end.
    */
   public void insert(int index, T data) {
-    Node<T> tempNode = new Node<T>(data);
-    Node<T> current = head;
-    // If there is no head, set the new node as head and tail.
-    if (current == null) {
-      head = tempNode;
-      tail = tempNode;
-      listcount++;
-      return;
-    }
-    // If the index is 0, set the new node as the head and link it to the previous head.
-    if (index == 0) {
-      tempNode.setNext(current);
-      current.setPrev(tempNode);
-      head = tempNode;
-      listcount++;
+    Objects.checkIndex(index, listcount + 1);
+    if (index == listcount) {
+      add(data);
       return;
     }
-    // Otherwise, iterate through the list until we reach the index.
-    if (current != null) {
-      for (int i = 0; i < index - 1; i++) {
-        current = current.getNext();
+    ChunkNode<T> chunk = locate(index);
+    int offset = index - cursorStart;
+
+    // Split a full chunk in half, and insert into whichever half the index falls in
+    if (chunk.isFull()) {
+      ChunkNode<T> second = pool.acquire();
+      int half = ChunkNode.CAPACITY / 2;
+      chunk.moveTo(half, second);
+      linkAfter(chunk, second);
+      if (offset > half) {
+        chunk = second;
+        offset -= half;
       }
     }
-    // Set the new node as the next node and link it to the previous node.
-    current.setNext(tempNode);
-    tempNode.setPrev(current);
-    tempNode.setNext(current.getNext());
-    current.getNext().setPrev(tempNode);
-
+    chunk.insert(offset, data);
     listcount++;
+    modCount++;
+    cursor = null;
   }
 
   /**
    * Remove an item from the list.
    *
    * @param index The index of the item to remove.
+   * @throws IndexOutOfBoundsException If the index is not in the list.
    */
   public void remove(int index) {
-    Node<T> current = head;
-    // If the index is 0, set the next node as the head and remove the previous head.
-    if (index == 0) {
-      Node<T> newHead = head.getNext();
-      head = newHead;
-      listcount--;
-      return;
-    }
-    // Otherwise, iterate through the list until we reach the index.
-    for (int i = 0; i < index - 1; i++) {
-      current = current.getNext();
-    }
-    // If the next node is not null, set the next node as the next next node.
-    if (current.getNext() != null && current.getNext().getNext() != null) {
-      Node<T> nextNext = current.getNext().getNext();
-      current.setNext(nextNext);
-      nextNext.setPrev(current);
-    } else {
-      current.setNext(null);
+    Objects.checkIndex(index, listcount);
+    ChunkNode<T> chunk = locate(index);
+    chunk.remove(index - cursorStart);
+
+    // Drop empty chunks, and merge small neighbours so chunks stay at least half full on average
+    ChunkNode<T> next = chunk.getNext();
+    if (chunk.getCount() == 0) {
+      unlink(chunk);
+    } else if (next != null && chunk.getCount() + next.getCount() <= ChunkNode.CAPACITY / 2) {
+      next.moveTo(0, chunk);
+      unlink(next);
     }
-    // Decrement the list count.
     listcount--;
+    modCount++;
+    cursor = null;
   }
 
   /**
@@ -139,10 +150,7 @@ public class LinkedList<T> {
    * @return <code>true</code> if the list is empty, <code>false</code> otherwise.
    */
   public boolean isEmpty() {
-    if (listcount == 0) {
-      return true;
-    }
-    return false;
+    return listcount == 0;
   }
 
   /**
@@ -152,33 +160,149 @@ public class LinkedList<T> {
    * @return The index of the node with the specified data.
    */
   public int indexOf(T data) {
-    Node<T> current = head;
-    for (int i = 0; i < listcount; i++) {
-      if (current.getData().equals(data)) {
-        return i;
+    int index = 0;
+    for (ChunkNode<T> chunk = head; chunk != null; chunk = chunk.getNext()) {
+      for (int i = 0; i < chunk.getCount(); i++) {
+        if (Objects.equals(chunk.get(i), data)) {
+          return index + i;
+        }
       }
-      current = current.getNext();
+      index += chunk.getCount();
     }
     return -1;
   }
 
+  /**
+   * Returns an iterator over the items of the list, from first to last. The iterator fails fast,
+   * throwing a {@link ConcurrentModificationException} if the list is changed while iterating.
+   *
+   * @return An iterator over the list.
+   */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      private final int expectedModCount = modCount;
+      private ChunkNode<T> chunk = head;
+      private int offset = 0;
+
+      @Override
+      public boolean hasNext() {
+        return chunk != null && offset < chunk.getCount();
+      }
+
+      @Override
+      public T next() {
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        T data = chunk.get(offset++);
+        if (offset == chunk.getCount()) {
+          chunk = chunk.getNext();
+          offset = 0;
+        }
+        return data;
+      }
+    };
+  }
+
+  /**
+   * Counts the chunks the items are stored in.
+   *
+   * @return The number of chunks in the list.
+   */
+  int chunkCount() {
+    int count = 0;
+    for (ChunkNode<T> chunk = head; chunk != null; chunk = chunk.getNext()) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Finds the chunk that holds an index, starting from whichever of the head, the tail or the
+   * cursor is closest. The cursor is moved to the chunk that was found.
+   *
+   * @param index The index to find, which must be in the list.
+   * @return The chunk holding the index. Its first item is at {@link #cursorStart}.
+   */
+  private ChunkNode<T> locate(int index) {
+    ChunkNode<T> chunk = head;
+    int start = 0;
+    int distance = index;
+
+    int tailStart = listcount - tail.getCount();
+    if (Math.abs(index - tailStart) < distance) {
+      chunk = tail;
+      start = tailStart;
+      distance = Math.abs(index - tailStart);
+    }
+    if (cursor != null && Math.abs(index - cursorStart) < distance) {
+      chunk = cursor;
+      start = cursorStart;
+    }
+
+    while (index < start) {
+      chunk = chunk.getPrev();
+      start -= chunk.getCount();
+    }
+    while (index >= start + chunk.getCount()) {
+      start += chunk.getCount();
+      chunk = chunk.getNext();
+    }
+    cursor = chunk;
+    cursorStart = start;
+    return chunk;
+  }
+
+  /**
+   * Links a new chunk into the list straight after an existing chunk.
+   *
+   * @param chunk The existing chunk.
+   * @param added The chunk to link in after it.
+   */
+  private void linkAfter(ChunkNode<T> chunk, ChunkNode<T> added) {
+    added.setPrev(chunk);
+    added.setNext(chunk.getNext());
+    if (chunk.getNext() == null) {
+      tail = added;
+    } else {
+      chunk.getNext().setPrev(added);
+    }
+    chunk.setNext(added);
+  }
+
+  /**
+   * Unlinks a chunk from the list and hands it back to the pool.
+   *
+   * @param chunk The chunk to unlink.
+   */
+  private void unlink(ChunkNode<T> chunk) {
+    if (chunk.getPrev() == null) {
+      head = chunk.getNext();
+    } else {
+      chunk.getPrev().setNext(chunk.getNext());
+    }
+    if (chunk.getNext() == null) {
+      tail = chunk.getPrev();
+    } else {
+      chunk.getNext().setPrev(chunk.getPrev());
+    }
+    pool.release(chunk);
+  }
+
   @Override
   public String toString() {
     // We will create a string builder the list of items.
-    Node<T> current = head;
     StringBuilder string = new StringBuilder();
     string.append("[");
-    // If the list is empty, return an empty string.
-    if (listcount == 0) {
-      return ("[]");
-    }
-    // Otherwise, iterate through the list and add each item to the string.
-    for (int i = 0; i < listcount; i++) {
-      string.append(current.getData());
-      if (current.getNext() != null) {
+    for (T data : this) {
+      if (string.length() > 1) {
         string.append(", ");
-        current = current.getNext();
       }
+      string.append(data);
     }
     string.append("]");
     return string.toString();
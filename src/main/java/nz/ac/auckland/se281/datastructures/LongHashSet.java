@@ -0,0 +1,136 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A hash set of primitive <code>long</code> values, used to store the edges of a graph as packed
+ * <code>(source &lt;&lt; 32) | destination</code> pairs of vertex ids. The values live directly in
+ * one open addressing table with linear probing, so there is no per-entry object and neither adding
+ * nor looking up a value allocates.
+ *
+ * <p>Only non-negative values can be stored, because -1 marks an empty slot. Packed edges are never
+ * negative as vertex ids are never negative.
+ */
+final class LongHashSet {
+  private static final long EMPTY = -1L;
+
+  private long[] table;
+  private int mask;
+  private int size = 0;
+
+  /**
+   * Creates a set with room for the given number of values. The table is kept at most half full,
+   * so probe sequences stay short, and it doubles if more values are added than expected.
+   *
+   * @param expectedSize The number of values the set is expected to hold.
+   */
+  LongHashSet(int expectedSize) {
+    allocate(Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1);
+  }
+
+  /**
+   * Packs an edge between two vertex ids into a single value.
+   *
+   * @param source The id of the source vertex.
+   * @param destination The id of the destination vertex.
+   * @return The packed edge.
+   */
+  static long pack(int source, int destination) {
+    return ((long) source << 32) | (destination & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Adds a value to the set.
+   *
+   * @param value The value to add, which must not be negative.
+   * @return <code> true </code> if the value was added, <code> false </code> if it was already in
+   *     the set.
+   */
+  boolean add(long value) {
+    // Grow before the table is more than half full, so a probe always reaches an empty slot
+    if ((size + 1) * 2L > table.length) {
+      grow();
+    }
+    int slot = slotOf(value);
+    while (table[slot] != EMPTY) {
+      if (table[slot] == value) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = value;
+    size++;
+    return true;
+  }
+
+  /**
+   * Checks if a value is in the set.
+   *
+   * @param value The value to look for.
+   * @return <code> true </code> if the value is in the set, <code> false </code> otherwise.
+   */
+  boolean contains(long value) {
+    int slot = slotOf(value);
+    while (table[slot] != EMPTY) {
+      if (table[slot] == value) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the number of values in the set.
+   *
+   * @return The number of values.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Helper function that creates an empty table.
+   *
+   * @param capacity The number of slots, which must be a power of two.
+   */
+  private void allocate(int capacity) {
+    table = new long[capacity];
+    mask = capacity - 1;
+    Arrays.fill(table, EMPTY);
+  }
+
+  /**
+   * Helper function that doubles the table and adds every value back into it.
+   *
+   * @throws IllegalStateException If the table cannot grow any further.
+   */
+  private void grow() {
+    if (table.length > Integer.MAX_VALUE / 2) {
+      throw new IllegalStateException("The set cannot hold more than " + size + " values");
+    }
+    long[] old = table;
+    allocate(table.length * 2);
+    for (long value : old) {
+      if (value != EMPTY) {
+        int slot = slotOf(value);
+        while (table[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+      }
+    }
+  }
+
+  /**
+   * Helper function that finds the first slot to probe for a value. The value is scrambled with a
+   * multiplicative hash first, as packed edges of nearby verticies only differ in a few low bits.
+   *
+   * @param value The value.
+   * @return The index of the first slot to probe.
+   */
+  private int slotOf(long value) {
+    long hash = value * 0x9E3779B97F4A7C15L;
+    return (int) (hash >>> 32) & mask;
+  }
+}
@@ -0,0 +1,105 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An {@link IntStore} whose values live in a memory mapped file rather than on the heap. The
+ * operating system pages the values in as they are read and can drop them again under memory
+ * pressure, so the store can be far larger than the heap.
+ *
+ * <p>A single mapping is limited to 2 GiB, so the file is mapped in segments of 2<sup>28</sup>
+ * values and an index is split into a segment and an offset within it.
+ *
+ * <p>The graph writes its values straight into the mapping while it is built, so they never pass
+ * through a heap array. A mapping is removed once the garbage collector finds its buffer
+ * unreachable. Until then its pages are backed by the file, so the operating system can still
+ * evict them.
+ */
+final class MappedIntStore implements IntStore {
+  private static final int SEGMENT_SHIFT = 28;
+  private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+  private final IntBuffer[] segments;
+  private final int length;
+
+  /**
+   * Creates a file of the given length in a directory and maps it in, with every value zero. The
+   * file is deleted as soon as it is mapped where the platform allows it, and otherwise when the
+   * JVM exits.
+   *
+   * @param directory The directory to create the file in.
+   * @param length The number of values.
+   * @throws IOException If the file cannot be created or mapped.
+   */
+  MappedIntStore(Path directory, int length) throws IOException {
+    this.length = length;
+    Path file = Files.createTempFile(directory, "csr", ".ints");
+    try (FileChannel channel =
+        FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      // Mapping past the end of the file grows it, and the new part of the file reads as zeros
+      segments = new IntBuffer[(length + SEGMENT_MASK) >>> SEGMENT_SHIFT];
+      for (int segment = 0; segment < segments.length; segment++) {
+        long start = (long) segment << SEGMENT_SHIFT;
+        long count = Math.min(SEGMENT_MASK + 1L, length - start);
+        segments[segment] =
+            channel
+                .map(FileChannel.MapMode.READ_WRITE, start * Integer.BYTES, count * Integer.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+      }
+    } finally {
+      // A mapping stays valid after its file is deleted, so we only need the file to create it
+      if (!file.toFile().delete()) {
+        file.toFile().deleteOnExit();
+      }
+    }
+  }
+
+  @Override
+  public int get(int index) {
+    return segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+  }
+
+  @Override
+  public void set(int index, int value) {
+    segments[index >>> SEGMENT_SHIFT].put(index & SEGMENT_MASK, value);
+  }
+
+  @Override
+  public void copyTo(int from, int[] destination, int offset, int count) {
+    // A range can cross into the next segment, so we copy it one segment at a time
+    while (count > 0) {
+      IntBuffer segment = segments[from >>> SEGMENT_SHIFT];
+      int position = from & SEGMENT_MASK;
+      int copied = Math.min(count, segment.limit() - position);
+      segment.get(position, destination, offset, copied);
+      from += copied;
+      offset += copied;
+      count -= copied;
+    }
+  }
+
+  @Override
+  public void copyFrom(int[] source, int offset, int to, int count) {
+    while (count > 0) {
+      IntBuffer segment = segments[to >>> SEGMENT_SHIFT];
+      int position = to & SEGMENT_MASK;
+      int copied = Math.min(count, segment.limit() - position);
+      segment.put(position, source, offset, copied);
+      to += copied;
+      offset += copied;
+      count -= copied;
+    }
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+}
@@ -0,0 +1,102 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A node pool is a free list of chunk nodes that a {@link LinkedList} can recycle instead of
+ * allocating a new chunk every time it grows. Chunks are handed back to the pool when they are
+ * removed from the list, up to a fixed number of chunks.
+ *
+ * <p>A pool may be shared between several lists, but it is not thread safe, so it should only be
+ * shared between lists used by the same thread.
+ *
+ * @param <T> The type of data stored in the lists that use the pool.
+ */
+public class NodePool<T> {
+  private final int capacity;
+  private ChunkNode<T> free = null;
+  private int size = 0;
+  private long hits = 0;
+  private long misses = 0;
+
+  /**
+   * Creates a node pool that keeps at most the given number of free chunks.
+   *
+   * @param capacity The most free chunks the pool will keep, or zero to never keep any.
+   * @throws IllegalArgumentException If the capacity is negative.
+   */
+  public NodePool(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("The pool capacity cannot be negative");
+    }
+    this.capacity = capacity;
+  }
+
+  /**
+   * Takes a free chunk from the pool, or allocates a new one if the pool is empty.
+   *
+   * @return An empty, unlinked chunk.
+   */
+  ChunkNode<T> acquire() {
+    if (free == null) {
+      misses++;
+      return new ChunkNode<>();
+    }
+    // The free chunks are chained through their next links
+    ChunkNode<T> chunk = free;
+    free = chunk.getNext();
+    chunk.setNext(null);
+    size--;
+    hits++;
+    return chunk;
+  }
+
+  /**
+   * Hands a chunk back to the pool. The chunk is emptied first, so the pool never keeps its old
+   * items alive. If the pool is full the chunk is left for the garbage collector.
+   *
+   * @param chunk The chunk that is no longer part of any list.
+   */
+  void release(ChunkNode<T> chunk) {
+    chunk.reset();
+    if (size < capacity) {
+      chunk.setNext(free);
+      free = chunk;
+      size++;
+    }
+  }
+
+  /**
+   * Return the number of free chunks in the pool.
+   *
+   * @return The number of free chunks.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Return the most free chunks the pool will keep.
+   *
+   * @return The capacity of the pool.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Return the number of chunks that were taken from the pool rather than allocated.
+   *
+   * @return The number of pool hits.
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Return the number of chunks that had to be allocated because the pool was empty.
+   *
+   * @return The number of pool misses.
+   */
+  public long getMisses() {
+    return misses;
+  }
+}
@@ -0,0 +1,103 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Comparator;
+
+/**
+ * The default ordering of verticies in a graph. Labels that are whole numbers, such as "7" or
+ * "-12", are compared by their numeric value, without parsing them into objects. They come before
+ * any other label. Every other label falls back to its natural ordering.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public class NumericAwareComparator<T extends Comparable<T>> implements Comparator<T> {
+
+  @Override
+  public int compare(T first, T second) {
+    if (first instanceof CharSequence && second instanceof CharSequence) {
+      CharSequence firstLabel = (CharSequence) first;
+      CharSequence secondLabel = (CharSequence) second;
+      boolean firstNumeric = isInteger(firstLabel);
+      boolean secondNumeric = isInteger(secondLabel);
+
+      if (firstNumeric && secondNumeric) {
+        int result = compareIntegers(firstLabel, secondLabel);
+        // Labels like "01" and "1" have the same value, so we still need a tie breaker
+        return result != 0 ? result : first.compareTo(second);
+      }
+      if (firstNumeric != secondNumeric) {
+        return firstNumeric ? -1 : 1;
+      }
+    }
+    return first.compareTo(second);
+  }
+
+  /**
+   * Checks if a label is a whole number, with an optional leading minus sign.
+   *
+   * @param label The label to check.
+   * @return <code> true </code> if the label is a whole number, <code> false </code> otherwise.
+   */
+  private static boolean isInteger(CharSequence label) {
+    int start = label.length() > 0 && label.charAt(0) == '-' ? 1 : 0;
+    if (start == label.length()) {
+      return false;
+    }
+    for (int i = start; i < label.length(); i++) {
+      if (label.charAt(i) < '0' || label.charAt(i) > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compares two whole number labels by value. Labels of any length are supported, as we compare
+   * the digits rather than parsing them.
+   *
+   * @param first The first label.
+   * @param second The second label.
+   * @return A negative number, zero, or a positive number as the first value is less than, equal
+   *     to, or greater than the second value.
+   */
+  private static int compareIntegers(CharSequence first, CharSequence second) {
+    boolean firstNegative = first.charAt(0) == '-';
+    boolean secondNegative = second.charAt(0) == '-';
+    int firstStart = skipZeros(first, firstNegative ? 1 : 0);
+    int secondStart = skipZeros(second, secondNegative ? 1 : 0);
+    boolean firstZero = firstStart == first.length();
+    boolean secondZero = secondStart == second.length();
+
+    // "-0" is the same value as "0", so zero never counts as negative
+    firstNegative = firstNegative && !firstZero;
+    secondNegative = secondNegative && !secondZero;
+    if (firstNegative != secondNegative) {
+      return firstNegative ? -1 : 1;
+    }
+
+    int magnitude = first.length() - firstStart - (second.length() - secondStart);
+    if (magnitude == 0) {
+      // Same number of digits, so the first differing digit decides
+      for (int i = 0; i < first.length() - firstStart; i++) {
+        magnitude = first.charAt(firstStart + i) - second.charAt(secondStart + i);
+        if (magnitude != 0) {
+          break;
+        }
+      }
+    }
+    return firstNegative ? -magnitude : magnitude;
+  }
+
+  /**
+   * Skips over the leading zeros of a whole number label.
+   *
+   * @param label The label.
+   * @param start The index of the first digit.
+   * @return The index of the first non-zero digit, or the length of the label if it is all zeros.
+   */
+  private static int skipZeros(CharSequence label, int start) {
+    while (start < label.length() && label.charAt(start) == '0') {
+      start++;
+    }
+    return start;
+  }
+}
@@ -0,0 +1,204 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * A level synchronous breadth first search that expands each level of the frontier across the
+ * threads of a {@link ForkJoinPool}, and still visits the verticies in exactly the same order as
+ * {@link CsrGraph#iterativeBreadthFirstSearch(int[])}.
+ *
+ * <p>The visit order is built in one array, where each level is a slice that follows the level
+ * before it. Every vertex has a claim, which holds the position in the visit order of the earliest
+ * parent that reached it. A level is expanded in three parallel steps:
+ *
+ * <ol>
+ *   <li>Every vertex in the level lowers the claim of each of its children to its own position,
+ *       with a compare and set. A child already visited in an earlier level keeps its smaller
+ *       claim, so the claim is the atomic visited flag.
+ *   <li>Every vertex counts the children whose claim it won, and the counts are summed into the
+ *       offset of each vertex's children in the next level.
+ *   <li>Every vertex copies the children it won into its slice of the next level, in row order.
+ * </ol>
+ *
+ * <p>The sequential search gives each child to its first parent in the queue, and adds it in row
+ * order, which is exactly the slice this produces. The children of the roots are the one exception:
+ * the sequential search sorts them, so the first level after the roots is sorted too.
+ */
+final class ParallelBreadthFirstSearch {
+  private static final int UNCLAIMED = Integer.MAX_VALUE;
+  private static final int ROOT_CLAIM = -1;
+
+  // Levels smaller than this are expanded on the calling thread, and tasks are split down to it
+  private static final int GRAIN = 1024;
+
+  private ParallelBreadthFirstSearch() {}
+
+  /**
+   * Performs a breadth first search from the given roots on a pool of threads.
+   *
+   * @param graph The graph to search.
+   * @param roots The ids of the roots, in the order they should be visited.
+   * @param pool The pool to expand the levels on.
+   * @return The ids of the verticies in the order they were visited.
+   */
+  static int[] search(CsrGraph<?> graph, int[] roots, ForkJoinPool pool) {
+    int[] order = new int[graph.vertexCount()];
+    int[] offsets = new int[graph.vertexCount() + 1];
+    AtomicIntegerArray claims = new AtomicIntegerArray(graph.vertexCount());
+    for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+      claims.set(vertex, UNCLAIMED);
+    }
+
+    int end = 0;
+    for (int root : roots) {
+      if (claims.get(root) != ROOT_CLAIM) {
+        claims.set(root, ROOT_CLAIM);
+        order[end++] = root;
+      }
+    }
+
+    int start = 0;
+    while (start < end) {
+      int levelStart = start;
+      int levelEnd = end;
+      forEach(
+          pool, levelStart, levelEnd, position -> claimChildren(graph, order, claims, position));
+      forEach(
+          pool,
+          levelStart,
+          levelEnd,
+          position ->
+              offsets[position - levelStart + 1] = countClaimed(graph, order, claims, position));
+
+      // Turn the counts into the offset of each vertex's children in the next level
+      offsets[0] = levelEnd;
+      for (int i = 1; i <= levelEnd - levelStart; i++) {
+        offsets[i] += offsets[i - 1];
+      }
+      forEach(
+          pool,
+          levelStart,
+          levelEnd,
+          position -> copyClaimed(graph, order, claims, position, offsets[position - levelStart]));
+
+      start = levelEnd;
+      end = offsets[levelEnd - levelStart];
+      if (levelStart == 0) {
+        // The children of the roots are visited in ascending order, as in the sequential search
+        Arrays.sort(order, start, end);
+      }
+    }
+    return Arrays.copyOf(order, end);
+  }
+
+  /**
+   * Helper function that lowers the claim of every child of a vertex to the vertex's position.
+   *
+   * @param graph The graph being searched
+   * @param order The visit order so far
+   * @param claims The claim of every vertex
+   * @param position The position of the vertex in the visit order
+   */
+  private static void claimChildren(
+      CsrGraph<?> graph, int[] order, AtomicIntegerArray claims, int position) {
+    int vertex = order[position];
+    for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+      int child = graph.outTarget(i);
+      int claim = claims.get(child);
+      while (claim > position && !claims.compareAndSet(child, claim, position)) {
+        claim = claims.get(child);
+      }
+    }
+  }
+
+  /**
+   * Helper function that counts the children of a vertex whose claim the vertex won.
+   *
+   * @param graph The graph being searched
+   * @param order The visit order so far
+   * @param claims The claim of every vertex
+   * @param position The position of the vertex in the visit order
+   * @return The number of children the vertex won.
+   */
+  private static int countClaimed(
+      CsrGraph<?> graph, int[] order, AtomicIntegerArray claims, int position) {
+    int vertex = order[position];
+    int count = 0;
+    for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+      if (claims.get(graph.outTarget(i)) == position) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Helper function that copies the children a vertex won into its slice of the next level.
+   *
+   * @param graph The graph being searched
+   * @param order The visit order so far
+   * @param claims The claim of every vertex
+   * @param position The position of the vertex in the visit order
+   * @param offset The position of the vertex's first child in the visit order
+   */
+  private static void copyClaimed(
+      CsrGraph<?> graph, int[] order, AtomicIntegerArray claims, int position, int offset) {
+    int vertex = order[position];
+    for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+      int child = graph.outTarget(i);
+      if (claims.get(child) == position) {
+        order[offset++] = child;
+      }
+    }
+  }
+
+  /**
+   * Helper function that runs a step for every position in a range. Small ranges run on the calling
+   * thread, and larger ones are split across the pool.
+   *
+   * @param pool The pool to run on
+   * @param from The first position
+   * @param to The position after the last
+   * @param step The step to run for each position
+   */
+  private static void forEach(ForkJoinPool pool, int from, int to, IntConsumer step) {
+    if (to - from <= GRAIN) {
+      for (int position = from; position < to; position++) {
+        step.accept(position);
+      }
+    } else {
+      pool.invoke(new RangeTask(from, to, step));
+    }
+  }
+
+  /** A task that splits a range of positions in half until each part is small enough to run. */
+  private static final class RangeTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final IntConsumer step;
+
+    RangeTask(int from, int to, IntConsumer step) {
+      this.from = from;
+      this.to = to;
+      this.step = step;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= GRAIN) {
+        for (int position = from; position < to; position++) {
+          step.accept(position);
+        }
+      } else {
+        int middle = (from + to) >>> 1;
+        invokeAll(new RangeTask(from, middle, step), new RangeTask(middle, to, step));
+      }
+    }
+  }
+}
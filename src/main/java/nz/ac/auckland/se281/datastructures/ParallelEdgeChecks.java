@@ -0,0 +1,141 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks symmetry and anti-symmetry across the threads of a {@link ForkJoinPool}. Both checks look
+ * up the reverse of every edge on its own, so the edges are split into ranges of source verticies
+ * with about the same number of edges each, and every range is checked in parallel. The reverse
+ * lookups go through {@link CsrGraph#hasEdge(int, int)}, which allocates nothing.
+ *
+ * <p>All of the tasks share one flag. The first task to find a violation raises it, and every other
+ * task stops at its next vertex, so the check returns soon after the first violation is found.
+ */
+final class ParallelEdgeChecks {
+  // Graphs with fewer edges than this are checked on the calling thread
+  static final int PARALLEL_THRESHOLD = 1 << 16;
+
+  // Ranges are split until they hold at most this many edges
+  private static final int GRAIN = 1 << 12;
+
+  /** The relation property that an edge range is checked for. */
+  enum Check {
+    SYMMETRY,
+    ANTI_SYMMETRY;
+
+    /**
+     * Checks if an edge breaks the property.
+     *
+     * @param graph The graph that holds the edge.
+     * @param source The id of the source of the edge.
+     * @param destination The id of the destination of the edge.
+     * @return <code> true </code> if the edge breaks the property, <code> false </code> otherwise.
+     */
+    boolean isViolatedBy(CsrGraph<?> graph, int source, int destination) {
+      if (this == SYMMETRY) {
+        return !graph.hasEdge(destination, source);
+      }
+      return destination != source && graph.hasEdge(destination, source);
+    }
+  }
+
+  private ParallelEdgeChecks() {}
+
+  /**
+   * Checks if the parallel checks are worth running on a graph. Small graphs, and pools without
+   * more than one thread, are faster to check on the calling thread.
+   *
+   * @param graph The graph to check.
+   * @param pool The pool the check would run on.
+   * @return <code> true </code> if the check should run in parallel, <code> false </code>
+   *     otherwise.
+   */
+  static boolean isWorthwhile(CsrGraph<?> graph, ForkJoinPool pool) {
+    return graph.edgeCount() >= PARALLEL_THRESHOLD && pool.getParallelism() > 1;
+  }
+
+  /**
+   * Checks if every edge of a graph satisfies a property, in parallel.
+   *
+   * @param graph The graph to check.
+   * @param check The property to check.
+   * @param pool The pool to run the check on.
+   * @return <code> true </code> if no edge breaks the property, <code> false </code> otherwise.
+   */
+  static boolean holds(CsrGraph<?> graph, Check check, ForkJoinPool pool) {
+    AtomicBoolean violated = new AtomicBoolean();
+    pool.invoke(new EdgeRangeTask(graph, check, violated, 0, graph.vertexCount()));
+    return !violated.get();
+  }
+
+  /** A task that checks the out-edges of a range of source verticies. */
+  private static final class EdgeRangeTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final CsrGraph<?> graph;
+    private final Check check;
+    private final AtomicBoolean violated;
+    private final int from;
+    private final int to;
+
+    EdgeRangeTask(CsrGraph<?> graph, Check check, AtomicBoolean violated, int from, int to) {
+      this.graph = graph;
+      this.check = check;
+      this.violated = violated;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (violated.get()) {
+        return;
+      }
+      int firstEdge = graph.outStart(from);
+      int lastEdge = graph.outStart(to);
+      if (lastEdge - firstEdge > GRAIN && to - from > 1) {
+        int middle = splitPoint(firstEdge + (lastEdge - firstEdge) / 2);
+        invokeAll(
+            new EdgeRangeTask(graph, check, violated, from, middle),
+            new EdgeRangeTask(graph, check, violated, middle, to));
+        return;
+      }
+
+      for (int source = from; source < to; source++) {
+        // Another task may already have the answer, so we stop as soon as it does
+        if (violated.get()) {
+          return;
+        }
+        for (int i = graph.outStart(source); i < graph.outEnd(source); i++) {
+          if (check.isViolatedBy(graph, source, graph.outTarget(i))) {
+            violated.set(true);
+            return;
+          }
+        }
+      }
+    }
+
+    /**
+     * Helper function that finds the source vertex where an edge index falls, so each half of the
+     * range gets about half of the edges. The split always leaves at least one vertex on each side.
+     *
+     * @param edge The index of the edge to split at.
+     * @return The first vertex of the second half.
+     */
+    private int splitPoint(int edge) {
+      int low = from + 1;
+      int high = to - 1;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (graph.outStart(middle) < edge) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+  }
+}
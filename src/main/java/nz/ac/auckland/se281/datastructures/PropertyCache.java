@@ -0,0 +1,108 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the properties of a graph that have already been computed. Every result is stored
+ * against the structural version of the graph it was computed for, and the whole cache is emptied
+ * as soon as it is asked about a different version. Each property is therefore computed at most
+ * once per version of the graph.
+ */
+final class PropertyCache {
+
+  /** The yes or no properties of a graph that can be cached. */
+  enum Property {
+    REFLEXIVE,
+    SYMMETRIC,
+    ANTI_SYMMETRIC,
+    TRANSITIVE,
+    EQUIVALENCE
+  }
+
+  private static final byte UNKNOWN = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+
+  private int version = -1;
+  private final byte[] results = new byte[Property.values().length];
+  private int[] roots;
+  private EquivalencePartition partition;
+  private GraphProperties properties;
+
+  /**
+   * Makes sure the cache only holds results for the given version, emptying it otherwise.
+   *
+   * @param version The current structural version of the graph.
+   */
+  void validate(int version) {
+    if (this.version != version) {
+      this.version = version;
+      for (int i = 0; i < results.length; i++) {
+        results[i] = UNKNOWN;
+      }
+      roots = null;
+      partition = null;
+      properties = null;
+    }
+  }
+
+  /**
+   * Gets a property, computing and remembering it if it is not cached yet.
+   *
+   * @param property The property to get.
+   * @param computation Computes the property if it is not cached.
+   * @return The value of the property.
+   */
+  boolean get(Property property, BooleanSupplier computation) {
+    if (results[property.ordinal()] == UNKNOWN) {
+      results[property.ordinal()] = computation.getAsBoolean() ? TRUE : FALSE;
+    }
+    return results[property.ordinal()] == TRUE;
+  }
+
+  /**
+   * Gets the root ids, computing and remembering them if they are not cached yet.
+   *
+   * @param computation Computes the root ids if they are not cached.
+   * @return The root ids, which must not be modified.
+   */
+  int[] roots(Supplier<int[]> computation) {
+    if (roots == null) {
+      roots = computation.get();
+    }
+    return roots;
+  }
+
+  /**
+   * Gets the equivalence partition, computing and remembering it if it is not cached yet.
+   *
+   * @param computation Builds the partition if it is not cached.
+   * @return The equivalence partition.
+   */
+  EquivalencePartition partition(Supplier<EquivalencePartition> computation) {
+    if (partition == null) {
+      partition = computation.get();
+    }
+    return partition;
+  }
+
+  /**
+   * Gets the full property report, computing and remembering it if it is not cached yet. The
+   * individual properties in the report are cached as well.
+   *
+   * @param computation Analyzes the graph if the report is not cached.
+   * @return The property report.
+   */
+  GraphProperties properties(Supplier<GraphProperties> computation) {
+    if (properties == null) {
+      properties = computation.get();
+      get(Property.REFLEXIVE, properties::isReflexive);
+      get(Property.SYMMETRIC, properties::isSymmetric);
+      get(Property.ANTI_SYMMETRIC, properties::isAntiSymmetric);
+      get(Property.TRANSITIVE, properties::isTransitive);
+      get(Property.EQUIVALENCE, properties::isEquivalence);
+    }
+    return properties;
+  }
+}
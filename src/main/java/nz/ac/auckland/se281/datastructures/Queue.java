@@ -1,12 +1,21 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.NoSuchElementException;
+
 /**
  * A queue is a data structure that allows elements in a first in first out order.
  *
+ * <p>The queue is a circular buffer over a growable array. The head and tail wrap around the end
+ * of the array, so enqueue and dequeue never allocate unless the array has to double in size.
+ *
  * @param <T> The type of data to store in the queue.
  */
 public class Queue<T> {
-  private LinkedList<T> queueList = new LinkedList<T>();
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Object[] elements = new Object[INITIAL_CAPACITY];
+  private int head = 0;
+  private int size = 0;
 
   /**
    * Add an item to the end of the queue.
@@ -14,27 +23,49 @@ public class Queue<T> {
    * @param data The data to add to the queue.
    */
   public void enqueue(T data) {
-    queueList.add(data);
+    if (size == elements.length) {
+      grow();
+    }
+    elements[(head + size) % elements.length] = data;
+    size++;
   }
 
   /**
    * Remove an item from the front of the queue and return it.
    *
    * @return The item at the front of the queue.
+   * @throws NoSuchElementException If the queue is empty.
    */
   public T dequeue() {
-    T head = queueList.get(0);
-    queueList.remove(0);
-    return head;
+    T data = peek();
+    // Clear the slot so the queue does not keep the item alive
+    elements[head] = null;
+    head = (head + 1) % elements.length;
+    size--;
+    return data;
   }
 
   /**
    * Return the item at the front of the queue without removing it.
    *
    * @return The item at the front of the queue.
+   * @throws NoSuchElementException If the queue is empty.
    */
+  @SuppressWarnings("unchecked")
   public T peek() {
-    return queueList.get(0);
+    if (size == 0) {
+      throw new NoSuchElementException("The queue is empty");
+    }
+    return (T) elements[head];
+  }
+
+  /**
+   * Return the size of the queue.
+   *
+   * @return The size of the queue.
+   */
+  public int size() {
+    return size;
   }
 
   /**
@@ -43,15 +74,29 @@ public class Queue<T> {
    * @return <code>true</code> if the queue is empty, <code>false</code> otherwise.
    */
   public boolean isEmpty() {
-    if (queueList.size() == 0) {
-      return true;
+    return size == 0;
+  }
+
+  /** Doubles the capacity of the queue, unwrapping its items to the start of the new array. */
+  private void grow() {
+    Object[] grown = new Object[elements.length * 2];
+    for (int i = 0; i < size; i++) {
+      grown[i] = elements[(head + i) % elements.length];
     }
-    return false;
+    elements = grown;
+    head = 0;
   }
 
-  // When we print a queue, we will print the list in a specific format defined in LinkedList.java.
+  // When we print a queue, we will print its items from front to back, such as [1, 2, 3].
   @Override
   public String toString() {
-    return queueList.toString();
+    StringBuilder string = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        string.append(", ");
+      }
+      string.append(elements[(head + i) % elements.length]);
+    }
+    return string.append("]").toString();
   }
 }
@@ -1,12 +1,21 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
 /**
  * A stack is a data structure that allows elements in a last in first out order.
  *
+ * <p>The stack is a contiguous growable array with the top at the end, so push and pop take
+ * amortised constant time and never allocate unless the array has to double in size.
+ *
  * @param <T> The type of data to store in the queue.
  */
 public class Stack<T> {
-  private LinkedList<T> stackList = new LinkedList<T>();
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Object[] elements = new Object[INITIAL_CAPACITY];
+  private int size = 0;
 
   /**
    * Add an item to the top of the stack.
@@ -14,27 +23,37 @@ public class Stack<T> {
    * @param data The data to add to the stack.
    */
   public void push(T data) {
-    stackList.insert(0, data);
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, elements.length * 2);
+    }
+    elements[size++] = data;
   }
 
   /**
    * Remove an item from the top of the stack and return it.
    *
    * @return The item at the top of the stack.
+   * @throws NoSuchElementException If the stack is empty.
    */
   public T pop() {
-    T head = stackList.get(0);
-    stackList.remove(0);
-    return head;
+    T data = peek();
+    // Clear the slot so the stack does not keep the item alive
+    elements[--size] = null;
+    return data;
   }
 
   /**
    * Return the item at the top of the stack without removing it.
    *
    * @return The item at the top of the stack.
+   * @throws NoSuchElementException If the stack is empty.
    */
+  @SuppressWarnings("unchecked")
   public T peek() {
-    return stackList.get(0);
+    if (size == 0) {
+      throw new NoSuchElementException("The stack is empty");
+    }
+    return (T) elements[size - 1];
   }
 
   /**
@@ -43,7 +62,7 @@ public class Stack<T> {
    * @return The size of the stack.
    */
   public int size() {
-    return stackList.size();
+    return size;
   }
 
   /**
@@ -52,20 +71,23 @@ public class Stack<T> {
    * @return <code>true</code> if the stack is empty, <code>false</code> otherwise.
    */
   public boolean isEmpty() {
-    if (stackList.size() == 0) {
-      return true;
-    }
-    return false;
+    return size == 0;
   }
 
   /**
-   * Override the toString method to print the stack in a specific format defined in
-   * LinkedList.java.
+   * Override the toString method to print the stack from top to bottom, such as [3, 2, 1].
    *
-   * @return The stack in a specific format defined in LinkedList.java.
+   * @return The stack from top to bottom.
    */
   @Override
   public String toString() {
-    return stackList.toString();
+    StringBuilder string = new StringBuilder("[");
+    for (int i = size - 1; i >= 0; i--) {
+      string.append(elements[i]);
+      if (i > 0) {
+        string.append(", ");
+      }
+    }
+    return string.append("]").toString();
   }
 }
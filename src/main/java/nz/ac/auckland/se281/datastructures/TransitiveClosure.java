@@ -0,0 +1,263 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the transitive closure of a {@link CsrGraph}: an edge from A to C for every path of one
+ * or more edges from A to C. Each row of the closure is a bitmap of the verticies its source can
+ * reach, and rows are laid out one after another in a flat <code>long[]</code>.
+ *
+ * <p>Two engines are used, both running in parallel across blocks of rows:
+ *
+ * <ul>
+ *   <li>Dense graphs use Warshall's algorithm on the whole matrix, blocked by 64 intermediate
+ *       verticies at a time so the 64 pivot rows stay in cache while every other row is updated.
+ *   <li>Sparse graphs run a breadth first search from every source, using the source's row as its
+ *       visited set. Rows are independent, so only a bounded block of rows is held at a time and
+ *       each block is handed to the caller before the next is computed.
+ * </ul>
+ *
+ * <p>The whole matrix is only built when it fits in a quarter of the heap, so the memory used is
+ * always bounded.
+ */
+final class TransitiveClosure {
+  // A graph is dense once it has at least one edge in this many possible edges
+  private static final int DENSE_DIVISOR = 64;
+
+  // Blocks of rows are split across the pool down to this many rows, or fewer when a block is too
+  // small to give every worker that many
+  private static final int ROW_GRAIN = 64;
+
+  private static final long SPARSE_BLOCK_BYTES = 64L << 20;
+
+  /** Receives the rows of the closure, one block at a time and in ascending order of source. */
+  interface RowConsumer {
+
+    /**
+     * Receives one row of the closure.
+     *
+     * @param source The id of the source of the row.
+     * @param rows The array holding the row.
+     * @param offset The index of the first word of the row.
+     */
+    void accept(int source, long[] rows, int offset);
+  }
+
+  private TransitiveClosure() {}
+
+  /**
+   * Computes every row of the closure of a graph and hands them to a consumer in ascending order of
+   * source. The consumer is always called on the calling thread.
+   *
+   * @param graph The graph to close.
+   * @param pool The pool to compute the rows on.
+   * @param consumer The consumer of the rows.
+   */
+  static void forEachRow(CsrGraph<?> graph, ForkJoinPool pool, RowConsumer consumer) {
+    int vertexCount = graph.vertexCount();
+    int words = Bitmaps.create(vertexCount).length;
+    long matrixBytes = (long) vertexCount * words * Long.BYTES;
+    long memoryLimit = Runtime.getRuntime().maxMemory() / 4;
+
+    boolean dense = graph.edgeCount() >= (long) vertexCount * vertexCount / DENSE_DIVISOR;
+    if (dense && matrixBytes <= memoryLimit && matrixBytes / Long.BYTES <= Integer.MAX_VALUE) {
+      long[] matrix = warshall(graph, words, pool);
+      for (int source = 0; source < vertexCount; source++) {
+        consumer.accept(source, matrix, source * words);
+      }
+      return;
+    }
+
+    long blockBytes = Math.max(Long.BYTES, Math.min(SPARSE_BLOCK_BYTES, memoryLimit / 2));
+    int blockRows = (int) Math.max(1, Math.min(vertexCount, blockBytes / (words * Long.BYTES)));
+    long[] block = new long[blockRows * words];
+    int grain = Math.max(1, Math.min(ROW_GRAIN, blockRows / pool.getParallelism()));
+    for (int first = 0; first < vertexCount; first += blockRows) {
+      int last = Math.min(vertexCount, first + blockRows);
+      Arrays.fill(block, 0L);
+      pool.invoke(new SearchRowsTask(graph, block, words, grain, first, first, last));
+      for (int source = first; source < last; source++) {
+        consumer.accept(source, block, (source - first) * words);
+      }
+    }
+  }
+
+  /**
+   * Counts the edges of the closure of a graph.
+   *
+   * @param graph The graph to close.
+   * @param pool The pool to compute the rows on.
+   * @return The number of edges in the closure.
+   */
+  static long edgeCount(CsrGraph<?> graph, ForkJoinPool pool) {
+    int words = Bitmaps.create(graph.vertexCount()).length;
+    long[] count = new long[1];
+    forEachRow(
+        graph,
+        pool,
+        (source, rows, offset) -> {
+          for (int word = offset; word < offset + words; word++) {
+            count[0] += Long.bitCount(rows[word]);
+          }
+        });
+    return count[0];
+  }
+
+  /**
+   * Helper function that computes the whole closure matrix with a blocked Warshall's algorithm.
+   *
+   * <p>For each block of 64 intermediate verticies, the pivot rows of the block are first closed
+   * over the block on their own. Every other row then ORs in the pivot row of each intermediate it
+   * already reaches. The pivot rows are final for the block by then, and they are never written
+   * while the other rows are updated, so those rows can be updated in parallel.
+   *
+   * @param graph The graph to close
+   * @param words The number of words in each row
+   * @param pool The pool to update the rows on
+   * @return The closure matrix.
+   */
+  private static long[] warshall(CsrGraph<?> graph, int words, ForkJoinPool pool) {
+    int vertexCount = graph.vertexCount();
+    long[] matrix = new long[vertexCount * words];
+    for (int source = 0; source < vertexCount; source++) {
+      for (int i = graph.outStart(source); i < graph.outEnd(source); i++) {
+        Bitmaps.set(matrix, source * words, graph.outTarget(i));
+      }
+    }
+
+    for (int pivotStart = 0; pivotStart < vertexCount; pivotStart += 64) {
+      int pivotEnd = Math.min(vertexCount, pivotStart + 64);
+      for (int pivot = pivotStart; pivot < pivotEnd; pivot++) {
+        for (int row = pivotStart; row < pivotEnd; row++) {
+          mergeIfReaches(matrix, words, row, pivot);
+        }
+      }
+      pool.invoke(new WarshallRowsTask(matrix, words, pivotStart, pivotEnd, 0, vertexCount));
+    }
+    return matrix;
+  }
+
+  /**
+   * Helper function that ORs the row of a pivot into a row, if the row already reaches the pivot.
+   *
+   * @param matrix The closure matrix
+   * @param words The number of words in each row
+   * @param row The row to update
+   * @param pivot The intermediate vertex
+   */
+  private static void mergeIfReaches(long[] matrix, int words, int row, int pivot) {
+    int rowOffset = row * words;
+    if (Bitmaps.get(matrix, rowOffset, pivot)) {
+      int pivotOffset = pivot * words;
+      for (int word = 0; word < words; word++) {
+        matrix[rowOffset + word] |= matrix[pivotOffset + word];
+      }
+    }
+  }
+
+  /** A task that updates a range of rows against one block of pivots. */
+  private static final class WarshallRowsTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final long[] matrix;
+    private final int words;
+    private final int pivotStart;
+    private final int pivotEnd;
+    private final int from;
+    private final int to;
+
+    WarshallRowsTask(long[] matrix, int words, int pivotStart, int pivotEnd, int from, int to) {
+      this.matrix = matrix;
+      this.words = words;
+      this.pivotStart = pivotStart;
+      this.pivotEnd = pivotEnd;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > ROW_GRAIN) {
+        int middle = (from + to) >>> 1;
+        invokeAll(
+            new WarshallRowsTask(matrix, words, pivotStart, pivotEnd, from, middle),
+            new WarshallRowsTask(matrix, words, pivotStart, pivotEnd, middle, to));
+        return;
+      }
+      for (int row = from; row < to; row++) {
+        // The pivot rows were already closed over their own block
+        if (row >= pivotStart && row < pivotEnd) {
+          continue;
+        }
+        for (int pivot = pivotStart; pivot < pivotEnd; pivot++) {
+          mergeIfReaches(matrix, words, row, pivot);
+        }
+      }
+    }
+  }
+
+  /** A task that fills a range of rows of a block with a breadth first search from each source. */
+  private static final class SearchRowsTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final CsrGraph<?> graph;
+    private final long[] block;
+    private final int words;
+    private final int grain;
+    private final int blockStart;
+    private final int from;
+    private final int to;
+
+    SearchRowsTask(
+        CsrGraph<?> graph, long[] block, int words, int grain, int blockStart, int from, int to) {
+      this.graph = graph;
+      this.block = block;
+      this.words = words;
+      this.grain = grain;
+      this.blockStart = blockStart;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > grain) {
+        int middle = (from + to) >>> 1;
+        invokeAll(
+            new SearchRowsTask(graph, block, words, grain, blockStart, from, middle),
+            new SearchRowsTask(graph, block, words, grain, blockStart, middle, to));
+        return;
+      }
+      IntQueue queue = new IntQueue();
+      for (int source = from; source < to; source++) {
+        int offset = (source - blockStart) * words;
+        queue.clear();
+        // The source is only in its own row if a path leads back to it, so we start from its
+        // children rather than from the source itself
+        enqueueUnreached(source, offset, queue);
+        while (!queue.isEmpty()) {
+          enqueueUnreached(queue.dequeue(), offset, queue);
+        }
+      }
+    }
+
+    /**
+     * Helper function that marks the unreached children of a vertex in a row and enqueues them.
+     *
+     * @param vertex The id of the vertex whose children are reached
+     * @param offset The index of the first word of the row
+     * @param queue The queue of reached verticies still to expand
+     */
+    private void enqueueUnreached(int vertex, int offset, IntQueue queue) {
+      for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+        int child = graph.outTarget(i);
+        if (!Bitmaps.get(block, offset, child)) {
+          Bitmaps.set(block, offset, child);
+          queue.enqueue(child);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * Checks transitivity over the adjacency of a {@link CsrGraph}. A graph is transitive exactly when,
+ * for every vertex A, the successors of each successor B of A are also successors of A. For each A
+ * we mark its successors in a bitmap, and then every successor C of every B is a single bit test.
+ * The check stops at the first violation.
+ */
+final class TransitivityChecker {
+
+  private TransitivityChecker() {}
+
+  /**
+   * Checks if a graph is transitive.
+   *
+   * @param graph The graph to check.
+   * @return <code> true </code> if the graph is transitive, <code> false </code> otherwise.
+   */
+  static boolean isTransitive(CsrGraph<?> graph) {
+    // One bitmap is reused for every vertex, and only the bits we set are cleared again
+    long[] successors = Bitmaps.create(graph.vertexCount());
+
+    for (int source = 0; source < graph.vertexCount(); source++) {
+      int start = graph.outStart(source);
+      int end = graph.outEnd(source);
+      for (int i = start; i < end; i++) {
+        Bitmaps.set(successors, graph.outTarget(i));
+      }
+      boolean transitive = successorsAreClosed(graph, source, successors);
+      for (int i = start; i < end; i++) {
+        Bitmaps.clear(successors, graph.outTarget(i));
+      }
+      if (!transitive) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks that every successor of every successor of a vertex is also one of its successors.
+   *
+   * @param graph The graph to check.
+   * @param source The vertex id.
+   * @param successors A bitmap with exactly the successors of the vertex set.
+   * @return <code> true </code> if the successors are closed, <code> false </code> otherwise.
+   */
+  static boolean successorsAreClosed(CsrGraph<?> graph, int source, long[] successors) {
+    int degree = graph.outDegree(source);
+    for (int i = graph.outStart(source); i < graph.outEnd(source); i++) {
+      int middle = graph.outTarget(i);
+      // A vertex's own successors are trivially a subset of themselves
+      if (middle == source) {
+        continue;
+      }
+      // Rows have no duplicates, so a larger row can never be a subset
+      if (graph.outDegree(middle) > degree) {
+        return false;
+      }
+      for (int j = graph.outStart(middle); j < graph.outEnd(middle); j++) {
+        if (!Bitmaps.get(successors, graph.outTarget(j))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
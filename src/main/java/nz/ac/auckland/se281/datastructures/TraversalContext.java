@@ -0,0 +1,230 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The working memory of a graph search: which verticies are visited, the queues and stack of the
+ * frontier, the frames of the depth first search, the links of a path search and the order the
+ * verticies are visited in. One context is kept per thread and reused by every search on that
+ * thread. Every buffer holds primitive ids, so apart from growing for a larger graph than any
+ * before it, the only allocation in a search is the copy of the visit order it returns.
+ *
+ * <p>Visited verticies are marked with an epoch rather than a flag. Each search takes a new epoch,
+ * and a vertex is visited when its stamp equals the current epoch, so clearing the visited set
+ * between searches is a single increment rather than a pass over every vertex.
+ *
+ * <p>A context belongs to one search at a time, so a search must not start another search on the
+ * same thread before it has finished. Each search opens the context with {@link #begin(int)} and
+ * closes it when it returns, and opening a context that is still open throws. Closing drops any
+ * buffer that one very large search has grown past {@link #RETAINED_LENGTH}, so a thread does not
+ * hold on to that memory for the rest of its life.
+ */
+final class TraversalContext implements AutoCloseable {
+  private static final ThreadLocal<TraversalContext> CONTEXTS =
+      ThreadLocal.withInitial(TraversalContext::new);
+
+  // The longest buffer a context keeps between searches
+  static final int RETAINED_LENGTH = 1 << 16;
+
+  private boolean inUse = false;
+
+  private int[] stamps = new int[0];
+  private int[] backwardStamps = new int[0];
+  private int epoch = 0;
+  private int[] order = new int[0];
+  private int orderSize = 0;
+  private int[] frameVertex = new int[0];
+  private int[] frameCursor = new int[0];
+  private int[] links = new int[0];
+  private int[] row = new int[0];
+
+  IntQueue rootQueue = new IntQueue();
+  IntOrderedQueue rootChildren = new IntOrderedQueue();
+  IntQueue childQueue = new IntQueue();
+  IntStack stack = new IntStack();
+  IntQueue forwardQueue = new IntQueue();
+  IntQueue backwardQueue = new IntQueue();
+
+  private TraversalContext() {}
+
+  /**
+   * Opens the context of the current thread, ready for a new search over a graph of the given
+   * size. Nothing is visited and every buffer is empty.
+   *
+   * @param vertexCount The number of verticies in the graph to search.
+   * @return The context of the current thread.
+   * @throws IllegalStateException If the context is already open for another search.
+   */
+  static TraversalContext begin(int vertexCount) {
+    TraversalContext context = CONTEXTS.get();
+    if (context.inUse) {
+      throw new IllegalStateException("A search is already using the traversal context");
+    }
+    context.reset(vertexCount);
+    context.inUse = true;
+    return context;
+  }
+
+  /** Closes the context once its search has finished, dropping any buffer grown too large. */
+  @Override
+  public void close() {
+    inUse = false;
+    if (stamps.length > RETAINED_LENGTH) {
+      // Fresh arrays have no stamps, so the epoch can keep counting from where it is
+      stamps = new int[0];
+      backwardStamps = new int[0];
+      order = new int[0];
+      frameVertex = new int[0];
+      frameCursor = new int[0];
+      links = new int[0];
+      row = new int[0];
+    }
+    if (rootQueue.capacity() > RETAINED_LENGTH) {
+      rootQueue = new IntQueue();
+    }
+    if (rootChildren.capacity() > RETAINED_LENGTH) {
+      rootChildren = new IntOrderedQueue();
+    }
+    if (childQueue.capacity() > RETAINED_LENGTH) {
+      childQueue = new IntQueue();
+    }
+    if (stack.capacity() > RETAINED_LENGTH) {
+      stack = new IntStack();
+    }
+    if (forwardQueue.capacity() > RETAINED_LENGTH) {
+      forwardQueue = new IntQueue();
+    }
+    if (backwardQueue.capacity() > RETAINED_LENGTH) {
+      backwardQueue = new IntQueue();
+    }
+  }
+
+  /**
+   * Helper function that empties the context and makes sure it can hold a graph of the given size.
+   *
+   * @param vertexCount The number of verticies in the graph to search.
+   */
+  private void reset(int vertexCount) {
+    if (stamps.length < vertexCount) {
+      // A new array has no stamps, so it is safe to keep counting from the current epoch
+      stamps = new int[vertexCount];
+      backwardStamps = new int[vertexCount];
+      order = new int[vertexCount];
+      frameVertex = new int[vertexCount];
+      frameCursor = new int[vertexCount];
+      links = new int[vertexCount];
+      row = new int[vertexCount];
+    }
+    epoch++;
+    if (epoch == 0) {
+      // The epoch has wrapped around, so old stamps could be mistaken for new ones
+      Arrays.fill(stamps, 0);
+      Arrays.fill(backwardStamps, 0);
+      epoch = 1;
+    }
+    orderSize = 0;
+    rootQueue.clear();
+    childQueue.clear();
+    stack.clear();
+    forwardQueue.clear();
+    backwardQueue.clear();
+    rootChildren.clear();
+  }
+
+  /**
+   * Checks if a vertex has been visited in the current search.
+   *
+   * @param vertex The vertex id.
+   * @return <code> true </code> if the vertex is visited, <code> false </code> otherwise.
+   */
+  boolean isVisited(int vertex) {
+    return stamps[vertex] == epoch;
+  }
+
+  /**
+   * Marks a vertex as visited in the current search.
+   *
+   * @param vertex The vertex id.
+   */
+  void markVisited(int vertex) {
+    stamps[vertex] = epoch;
+  }
+
+  /**
+   * Checks if a vertex has been reached by the backward half of a bidirectional search.
+   *
+   * @param vertex The vertex id.
+   * @return <code> true </code> if the vertex is visited backwards, <code> false </code> otherwise.
+   */
+  boolean isVisitedBackward(int vertex) {
+    return backwardStamps[vertex] == epoch;
+  }
+
+  /**
+   * Marks a vertex as reached by the backward half of a bidirectional search.
+   *
+   * @param vertex The vertex id.
+   */
+  void markVisitedBackward(int vertex) {
+    backwardStamps[vertex] = epoch;
+  }
+
+  /**
+   * Records that a vertex was visited next. Each vertex is recorded at most once per search, so
+   * the order buffer never needs to grow.
+   *
+   * @param vertex The vertex id.
+   */
+  void record(int vertex) {
+    order[orderSize++] = vertex;
+  }
+
+  /**
+   * Gets a copy of the verticies recorded so far, so the buffer can be reused by the next search.
+   *
+   * @return The ids of the verticies in the order they were recorded.
+   */
+  int[] traversalOrder() {
+    return Arrays.copyOf(order, orderSize);
+  }
+
+  /**
+   * Gets the vertex of each frame of the depth first search, one slot per vertex in the graph.
+   *
+   * @return The frame vertex array.
+   */
+  int[] frameVertex() {
+    return frameVertex;
+  }
+
+  /**
+   * Gets the next out-edge of each frame of the depth first search, one slot per vertex in the
+   * graph.
+   *
+   * @return The frame cursor array.
+   */
+  int[] frameCursor() {
+    return frameCursor;
+  }
+
+  /**
+   * Gets a buffer to copy a row of the graph into, one slot per vertex in the graph. A vertex has
+   * at most one edge to each vertex, so any row fits.
+   *
+   * @return The row buffer.
+   */
+  int[] row() {
+    return row;
+  }
+
+  /**
+   * Gets the link of each vertex reached by a path search, one slot per vertex in the graph. A
+   * vertex reached forwards links to the vertex it was reached from, and a vertex reached
+   * backwards links to the vertex it leads to.
+   *
+   * @return The link array.
+   */
+  int[] links() {
+    return links;
+  }
+}
@@ -0,0 +1,80 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A union-find (disjoint set) structure over the ids <code>0</code> to <code>size - 1</code>. Sets
+ * are joined by rank and every lookup compresses the path it walks, so any sequence of operations
+ * takes near-constant amortised time per operation.
+ */
+public class UnionFind implements DisjointSets {
+  private final int[] parent;
+  private final byte[] rank;
+
+  /**
+   * Creates a union-find where every id starts in a set of its own.
+   *
+   * @param size The number of ids.
+   */
+  public UnionFind(int size) {
+    parent = new int[size];
+    rank = new byte[size];
+    for (int id = 0; id < size; id++) {
+      parent[id] = id;
+    }
+  }
+
+  /**
+   * Finds the representative of the set that contains an id.
+   *
+   * @param id The id to look up.
+   * @return The representative id of its set.
+   */
+  @Override
+  public int find(int id) {
+    int root = id;
+    while (parent[root] != root) {
+      root = parent[root];
+    }
+    // Point every id on the path straight at the root, so the next lookup is a single step
+    while (parent[id] != root) {
+      int next = parent[id];
+      parent[id] = root;
+      id = next;
+    }
+    return root;
+  }
+
+  /**
+   * Joins the sets that contain two ids, hanging the shallower tree under the deeper one.
+   *
+   * @param first The first id.
+   * @param second The second id.
+   * @return <code> true </code> if the ids were in different sets, <code> false </code> otherwise.
+   */
+  @Override
+  public boolean union(int first, int second) {
+    int firstRoot = find(first);
+    int secondRoot = find(second);
+    if (firstRoot == secondRoot) {
+      return false;
+    }
+    if (rank[firstRoot] < rank[secondRoot]) {
+      parent[firstRoot] = secondRoot;
+    } else if (rank[firstRoot] > rank[secondRoot]) {
+      parent[secondRoot] = firstRoot;
+    } else {
+      parent[secondRoot] = firstRoot;
+      rank[firstRoot]++;
+    }
+    return true;
+  }
+
+  /**
+   * Gets the number of ids in the union-find.
+   *
+   * @return The number of ids.
+   */
+  @Override
+  public int size() {
+    return parent.length;
+  }
+}
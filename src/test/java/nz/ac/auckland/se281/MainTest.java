@@ -2,6 +2,9 @@ package nz.ac.auckland.se281;
 
 import static nz.ac.auckland.se281.Command.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -656,5 +659,106 @@ public class MainTest {
       assertContains("Successfully opened graph from file w.txt");
       assertContains("[0, 1, 3, 2, 4, 5, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 6]");
     }
+
+    @Test
+    public void TY_G_analyze() throws Exception {
+      runCommands(OPEN_FILE, "c.txt", ANALYZE);
+      assertContains("Successfully opened graph from file c.txt");
+      assertContains("The graph is reflexive");
+      assertContains("The graph is symmetric");
+      assertContains("The graph is NOT antisymmetric");
+      assertContains("The graph is transitive");
+      assertContains("The graph is an equivalence relation");
+    }
+
+    @Test
+    public void TY_G_analyze_not_equivalence() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", ANALYZE);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("The graph is NOT reflexive");
+      assertContains("The graph is NOT symmetric");
+      assertContains("The graph is antisymmetric");
+      assertContains("The graph is NOT transitive");
+      assertContains("The graph is NOT an equivalence relation");
+    }
+
+    @Test
+    public void TY_H_reflexivity_missing_self_loops() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", CHECK_REFLEXIVITY);
+      assertContains("Successfully opened graph from file b.txt");
+      assertContains("The graph is NOT reflexive");
+      assertContains("Verticies without a self loop: [6]");
+    }
+
+    @Test
+    public void TY_I_find_path() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", FIND_PATH, 6, 0);
+      assertContains("Successfully opened graph from file b.txt");
+      assertContains("[6, 5, 4, 3, 2, 1, 0]");
+    }
+
+    @Test
+    public void TY_I_find_path_unreachable() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", FIND_PATH, 0, 6);
+      assertContains("Successfully opened graph from file b.txt");
+      assertContains("There is no path from 0 to 6");
+    }
+
+    @Test
+    public void TY_J_direction_optimizing_search() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_DOBFS);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("[1, 3, 5, 6, 9, 11, 2, 7, 12, 4, 8, 10]");
+    }
+
+    @Test
+    public void TY_K_compute_closure() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", COMPUTE_CLOSURE);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("The transitive closure has 8 edges");
+    }
+
+    @Test
+    public void TY_K_export_closure_is_transitive() throws Exception {
+      try {
+        runCommands(
+            OPEN_FILE, "a.txt", EXPORT_CLOSURE, "closure_a.txt", OPEN_FILE, "closure_a.txt",
+            CHECK_TRANSITIVITY);
+        assertContains("Wrote the transitive closure to closure_a.txt");
+        assertContains("Successfully opened graph from file closure_a.txt");
+        assertContains("The graph is transitive");
+      } finally {
+        Files.deleteIfExists(Path.of("testcases", "closure_a.txt"));
+      }
+    }
+
+    @Test
+    public void TY_K_export_closure_outside_testcases() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", EXPORT_CLOSURE, "../closure_a.txt");
+      assertContains("Error: could not write the transitive closure to '../closure_a.txt'");
+      Assert.assertFalse(Files.exists(Path.of("closure_a.txt")));
+    }
+
+    @Test
+    public void TY_K_export_closure_existing_file() throws Exception {
+      String before = Files.readString(Path.of("testcases", "b.txt"));
+      runCommands(OPEN_FILE, "a.txt", EXPORT_CLOSURE, "b.txt");
+      assertContains("Error: could not write the transitive closure to 'b.txt'");
+      Assert.assertEquals(before, Files.readString(Path.of("testcases", "b.txt")));
+    }
+
+    @Test
+    public void TY_L_iterative_BFS_child_order() throws Exception {
+      runCommands(OPEN_FILE, "e.txt", GRAPH_SEARCH_IBFS);
+      assertContains("Successfully opened graph from file e.txt");
+      assertContains("[0, 1, 11, 2]");
+    }
+
+    @Test
+    public void TY_L_recursive_BFS_child_order() throws Exception {
+      runCommands(OPEN_FILE, "e.txt", GRAPH_SEARCH_RBFS);
+      assertContains("Successfully opened graph from file e.txt");
+      assertContains("[0, 1, 11, 2]");
+    }
   }
 }
@@ -0,0 +1,204 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Micro benchmarks for the graph engine. These are not unit tests, run them with <code>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=nz.ac.auckland.se281.datastructures.GraphBenchmark</code>.
+ */
+public class GraphBenchmark {
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+
+  public static void main(String[] args) {
+    benchmarkRootFrontier();
+    System.out.println();
+    benchmarkSnapshot();
+    System.out.println();
+    benchmarkParallelBreadthFirstSearch();
+  }
+
+  /**
+   * Compares the ordered frontier used in the BFS root phase against the original code path, which
+   * re-sorted the whole child queue after every enqueue, on a single root with a wide fan-out. The
+   * original re-sort is quadratic, so the widths are kept small enough for it to finish.
+   */
+  private static void benchmarkRootFrontier() {
+    System.out.println("BFS root frontier (one root, d children in random order)");
+    System.out.println("d\tresort-queue ms\tordered-queue ms");
+    for (int width : new int[] {100, 200, 400, 800}) {
+      int[] children = shuffledIds(width);
+      String[] labels = new String[width];
+      for (int i = 0; i < width; i++) {
+        labels[i] = String.valueOf(children[i]);
+      }
+      double resort = time(() -> resortAfterEveryEnqueue(labels));
+      double ordered = time(() -> orderedQueue(children));
+      System.out.printf("%d\t%.2f\t\t%.2f%n", width, resort, ordered);
+    }
+
+    System.out.println();
+    System.out.println("Graph.iterativeBreadthFirstSearch on a star graph");
+    System.out.println("d\tms");
+    for (int width : new int[] {10_000, 100_000, 1_000_000}) {
+      Graph<String> graph = starGraph(width);
+      System.out.printf("%d\t%.2f%n", width, time(graph::iterativeBreadthFirstSearch));
+    }
+  }
+
+  /**
+   * Measures the cost of taking a snapshot of a freshly built graph, which indexes the graph and
+   * computes every property, the roots and the equivalence classes up front. It is compared against
+   * one iterative breadth first search, the cheapest full pass a reader would otherwise make.
+   */
+  private static void benchmarkSnapshot() {
+    System.out.println("Graph.snapshot construction cost (random graph, 4 edges per vertex)");
+    System.out.println("n\tsnapshot ms\tbfs ms");
+    for (int size : new int[] {10_000, 100_000, 500_000}) {
+      Set<String> verticies = new HashSet<>();
+      Set<Edge<String>> edges = GraphFixtures.randomEdges(size, 4, verticies);
+      double snapshot = time(() -> new Graph<>(verticies, edges).snapshot());
+      GraphSnapshot<String> frozen = new Graph<>(verticies, edges).snapshot();
+      double search = time(frozen::iterativeBreadthFirstSearch);
+      System.out.printf("%d\t%.2f\t\t%.2f%n", size, snapshot, search);
+    }
+  }
+
+  /**
+   * Reports how the parallel breadth first search scales from one thread up to every available
+   * core, against the sequential search, on a random graph whose levels are wide enough to split.
+   */
+  private static void benchmarkParallelBreadthFirstSearch() {
+    int size = 1_000_000;
+    Set<String> verticies = new HashSet<>();
+    CsrGraph<String> graph =
+        GraphFixtures.index(verticies, GraphFixtures.randomEdges(size, 8, verticies));
+    // Search from a single root, so the levels fan out from one vertex
+    int[] roots = {0};
+
+    System.out.println("Parallel BFS scaling (n = " + size + ", 8 edges per vertex)");
+    System.out.println("threads\tms\tspeedup");
+    double sequential = time(() -> graph.iterativeBreadthFirstSearch(roots));
+    System.out.printf("seq\t%.2f\t1.00%n", sequential);
+    for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads++) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      double parallel = time(() -> ParallelBreadthFirstSearch.search(graph, roots, pool));
+      System.out.printf("%d\t%.2f\t%.2f%n", threads, parallel, sequential / parallel);
+      pool.shutdown();
+    }
+  }
+
+  private static String resortAfterEveryEnqueue(String[] children) {
+    Queue<String> queue = new Queue<>();
+    for (String child : children) {
+      queue.enqueue(child);
+      // The root phase used to re-sort the whole child queue after every enqueue
+      sortQueue(queue);
+    }
+    return queue.peek();
+  }
+
+  /**
+   * The original helper from the root phase of the breadth first search, which sorts a queue of
+   * numeric labels in ascending order.
+   *
+   * @param queue The queue to be sorted
+   * @return The sorted queue
+   */
+  private static Queue<String> sortQueue(Queue<String> queue) {
+    // We will dequeue all elements from the queue and add them to an array list
+    List<Integer> list = new ArrayList<>();
+    while (!queue.isEmpty()) {
+      list.add(Integer.parseInt(queue.dequeue()));
+    }
+    // Sort the array list and add the elements back into the queue in ascending order
+    list = sortArrayList(list);
+    for (Integer element : list) {
+      queue.enqueue(element.toString());
+    }
+    return queue;
+  }
+
+  /**
+   * The original helper that sorts an array list of type Integer in ascending order, used by
+   * {@link #sortQueue(Queue)}.
+   *
+   * @param list The list to be sorted
+   * @return The sorted list
+   */
+  private static List<Integer> sortArrayList(List<Integer> list) {
+    // We will loop through the list and swap elements if the current element is greater than the
+    // other element
+    for (int i = 0; i < list.size(); i++) {
+      for (int j = 0; j < list.size(); j++) {
+        if (list.get(i) < list.get(j)) {
+          int temp = list.get(i);
+          list.set(i, list.get(j));
+          list.set(j, temp);
+        }
+      }
+    }
+    return list;
+  }
+
+  private static int orderedQueue(int[] children) {
+    IntOrderedQueue queue = new IntOrderedQueue();
+    for (int child : children) {
+      queue.enqueue(child);
+    }
+    int last = 0;
+    while (!queue.isEmpty()) {
+      last = queue.dequeue();
+    }
+    return last;
+  }
+
+  private static int[] shuffledIds(int count) {
+    int[] ids = new int[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = i;
+    }
+    Random random = new Random(281);
+    for (int i = count - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int temp = ids[i];
+      ids[i] = ids[j];
+      ids[j] = temp;
+    }
+    return ids;
+  }
+
+  private static Graph<String> starGraph(int width) {
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new HashSet<>();
+    verticies.add("0");
+    for (int i = 1; i <= width; i++) {
+      verticies.add(String.valueOf(i));
+      edges.add(new Edge<>("0", String.valueOf(i)));
+    }
+    return new Graph<>(verticies, edges);
+  }
+
+  /**
+   * Runs a task a few times to warm up, then returns the average time of the measured runs.
+   *
+   * @param task The task to time.
+   * @return The average time of one run in milliseconds.
+   */
+  private static double time(Runnable task) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      task.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      task.run();
+    }
+    return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+  }
+}
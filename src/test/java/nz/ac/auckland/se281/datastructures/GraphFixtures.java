@@ -0,0 +1,42 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/** Graphs shared by the unit tests and benchmarks of the graph engine. */
+final class GraphFixtures {
+  private GraphFixtures() {}
+
+  /**
+   * Creates random edges, where every vertex has the given number of out-edges to random verticies.
+   * The seed is fixed, so every call with the same arguments creates the same edges.
+   *
+   * @param size The number of verticies, labelled <code>0</code> to <code>size - 1</code>.
+   * @param degree The number of out-edges of each vertex, before duplicates are removed.
+   * @param verticies The set to add the verticies to.
+   * @return The edges.
+   */
+  static Set<Edge<String>> randomEdges(int size, int degree, Set<String> verticies) {
+    Random random = new Random(281);
+    Set<Edge<String>> edges = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      verticies.add(String.valueOf(i));
+      for (int j = 0; j < degree; j++) {
+        edges.add(new Edge<>(String.valueOf(i), String.valueOf(random.nextInt(size))));
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * Indexes a graph on the heap, with its verticies in numeric order.
+   *
+   * @param verticies The verticies of the graph.
+   * @param edges The edges of the graph.
+   * @return The indexed graph.
+   */
+  static CsrGraph<String> index(Set<String> verticies, Set<Edge<String>> edges) {
+    return new CsrGraph<>(verticies, edges, new NumericAwareComparator<>(), GraphStorage.heap());
+  }
+}
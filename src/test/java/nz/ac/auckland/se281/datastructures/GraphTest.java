@@ -0,0 +1,253 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks the searches of {@link Graph} on graphs too large to write out as test cases. */
+public class GraphTest {
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("graph");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    // The mapped files are removed as soon as they are mapped, but we make sure of it
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Test
+  public void mappedStorageMatchesHeapOnRandomGraph() {
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = GraphFixtures.randomEdges(2_000, 3, verticies);
+    assertSameResults(
+        new Graph<>(verticies, edges),
+        new Graph<>(
+            verticies, edges, new NumericAwareComparator<>(), GraphStorage.mapped(directory)));
+  }
+
+  @Test
+  public void mappedStorageMatchesHeapOnEquivalence() {
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = equivalenceEdges(210, 7, verticies);
+    Graph<String> heap = new Graph<>(verticies, edges);
+    Graph<String> mapped =
+        new Graph<>(
+            verticies, edges, new NumericAwareComparator<>(), GraphStorage.mapped(directory));
+    Assert.assertTrue(mapped.isEquivalence());
+    assertSameResults(heap, mapped);
+    for (String vertex : verticies) {
+      Assert.assertEquals(heap.getEquivalenceClass(vertex), mapped.getEquivalenceClass(vertex));
+    }
+  }
+
+  @Test
+  public void mappedStorageMatchesHeapAfterChanges() {
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new LinkedHashSet<>(GraphFixtures.randomEdges(2_000, 3, verticies));
+    Graph<String> mapped =
+        new Graph<>(
+            verticies, edges, new NumericAwareComparator<>(), GraphStorage.mapped(directory));
+    Edge<String> existing = edges.iterator().next();
+    Assert.assertFalse(mapped.addEdge(existing.getSource(), existing.getDestination()));
+    Assert.assertFalse(mapped.addVertex("0"));
+
+    // The added edges go after the indexed ones in every row, as they do in a linked edge set
+    Assert.assertTrue(mapped.addVertex("2000"));
+    Assert.assertTrue(mapped.addEdge("2000", "0"));
+    Assert.assertTrue(mapped.addEdge("0", "2001"));
+    Assert.assertFalse(mapped.addEdge("0", "2001"));
+    verticies.add("2000");
+    verticies.add("2001");
+    edges.add(new Edge<>("2000", "0"));
+    edges.add(new Edge<>("0", "2001"));
+    assertSameResults(new Graph<>(verticies, edges), mapped);
+  }
+
+  @Test
+  public void snapshotMatchesGraphOnRandomGraph() {
+    Set<String> verticies = new HashSet<>();
+    Graph<String> graph = new Graph<>(verticies, GraphFixtures.randomEdges(2_000, 3, verticies));
+    assertSnapshotMatches(graph, graph.snapshot());
+  }
+
+  @Test
+  public void snapshotMatchesGraphOnEquivalence() {
+    Set<String> verticies = new HashSet<>();
+    Graph<String> graph = new Graph<>(verticies, equivalenceEdges(210, 7, verticies));
+    GraphSnapshot<String> snapshot = graph.snapshot();
+    Assert.assertTrue(snapshot.isEquivalence());
+    assertSnapshotMatches(graph, snapshot);
+    for (String vertex : verticies) {
+      Assert.assertEquals(graph.getEquivalenceClass(vertex), snapshot.getEquivalenceClass(vertex));
+    }
+  }
+
+  @Test
+  public void snapshotIgnoresLaterChanges() {
+    Set<String> verticies = new HashSet<>();
+    Graph<String> graph = new Graph<>(verticies, GraphFixtures.randomEdges(2_000, 3, verticies));
+    GraphSnapshot<String> snapshot = graph.snapshot();
+    List<String> before = graph.iterativeBreadthFirstSearch();
+    graph.addVertex("2000");
+    graph.addEdge("2000", "0");
+
+    Assert.assertEquals(before, snapshot.iterativeBreadthFirstSearch());
+    Assert.assertEquals(2_000, snapshot.vertexCount());
+  }
+
+  @Test
+  public void lazySearchesMatchListSearches() {
+    Set<String> verticies = new HashSet<>();
+    Graph<String> graph = new Graph<>(verticies, GraphFixtures.randomEdges(2_000, 3, verticies));
+    List<String> breadthFirst = graph.iterativeBreadthFirstSearch();
+    List<String> depthFirst = graph.iterativeDepthFirstSearch();
+
+    Assert.assertEquals(breadthFirst, toList(graph.breadthFirstIterator()));
+    Assert.assertEquals(breadthFirst, graph.breadthFirstStream().collect(Collectors.toList()));
+    Assert.assertEquals(depthFirst, toList(graph.depthFirstIterator()));
+    Assert.assertEquals(depthFirst, graph.depthFirstStream().collect(Collectors.toList()));
+
+    GraphSnapshot<String> snapshot = graph.snapshot();
+    Assert.assertEquals(breadthFirst, toList(snapshot.breadthFirstIterator()));
+    Assert.assertEquals(depthFirst, toList(snapshot.depthFirstIterator()));
+  }
+
+  @Test
+  public void lazySearchesStopEarly() {
+    Set<String> verticies = new HashSet<>();
+    Graph<String> graph = new Graph<>(verticies, GraphFixtures.randomEdges(2_000, 3, verticies));
+
+    Assert.assertEquals(
+        graph.iterativeBreadthFirstSearch().subList(0, 10),
+        graph.breadthFirstStream().limit(10).collect(Collectors.toList()));
+    Assert.assertEquals(
+        graph.iterativeDepthFirstSearch().subList(0, 10),
+        graph.depthFirstStream().limit(10).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void recursiveSearchesOnLongChain() {
+    int length = 100_000;
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new HashSet<>();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < length; i++) {
+      verticies.add(String.valueOf(i));
+      expected.add(String.valueOf(i));
+      if (i > 0) {
+        edges.add(new Edge<>(String.valueOf(i - 1), String.valueOf(i)));
+      }
+    }
+    Graph<String> graph = new Graph<>(verticies, edges);
+
+    // A search that recursed once per vertex would overflow the stack long before the end
+    Assert.assertEquals(expected, graph.recursiveDepthFirstSearch());
+    Assert.assertEquals(expected, graph.recursiveBreadthFirstSearch());
+  }
+
+  /**
+   * Helper function that checks two graphs over the same verticies give the same roots, properties
+   * and searches.
+   *
+   * @param expected The graph with the expected results.
+   * @param actual The graph to check.
+   */
+  private static void assertSameResults(Graph<String> expected, Graph<String> actual) {
+    Assert.assertEquals(expected.getRoots(), actual.getRoots());
+    Assert.assertEquals(expected.isReflexive(), actual.isReflexive());
+    Assert.assertEquals(expected.isSymmetric(), actual.isSymmetric());
+    Assert.assertEquals(expected.isAntiSymmetric(), actual.isAntiSymmetric());
+    Assert.assertEquals(expected.isTransitive(), actual.isTransitive());
+    Assert.assertEquals(expected.isEquivalence(), actual.isEquivalence());
+    Assert.assertEquals(
+        expected.getVerticiesWithoutSelfLoop(), actual.getVerticiesWithoutSelfLoop());
+    Assert.assertEquals(
+        expected.iterativeBreadthFirstSearch(), actual.iterativeBreadthFirstSearch());
+    Assert.assertEquals(expected.iterativeDepthFirstSearch(), actual.iterativeDepthFirstSearch());
+    Assert.assertEquals(
+        expected.recursiveBreadthFirstSearch(), actual.recursiveBreadthFirstSearch());
+    Assert.assertEquals(expected.recursiveDepthFirstSearch(), actual.recursiveDepthFirstSearch());
+    Assert.assertEquals(expected.parallelBreadthFirstSearch(), actual.parallelBreadthFirstSearch());
+    Assert.assertEquals(expected.directionOptimizingSearch(), actual.directionOptimizingSearch());
+    Assert.assertEquals(expected.findPath("0", "1"), actual.findPath("0", "1"));
+    Assert.assertEquals(expected.isReachable("1", "0"), actual.isReachable("1", "0"));
+  }
+
+  /**
+   * Helper function that checks a snapshot gives the same roots, properties and searches as the
+   * graph it was taken from.
+   *
+   * @param graph The graph the snapshot was taken from.
+   * @param snapshot The snapshot to check.
+   */
+  private static void assertSnapshotMatches(Graph<String> graph, GraphSnapshot<String> snapshot) {
+    Assert.assertEquals(graph.getRoots(), snapshot.getRoots());
+    Assert.assertEquals(graph.isReflexive(), snapshot.isReflexive());
+    Assert.assertEquals(graph.isSymmetric(), snapshot.isSymmetric());
+    Assert.assertEquals(graph.isAntiSymmetric(), snapshot.isAntiSymmetric());
+    Assert.assertEquals(graph.isTransitive(), snapshot.isTransitive());
+    Assert.assertEquals(graph.isEquivalence(), snapshot.isEquivalence());
+    Assert.assertEquals(
+        graph.getVerticiesWithoutSelfLoop(), snapshot.getVerticiesWithoutSelfLoop());
+    Assert.assertEquals(
+        graph.iterativeBreadthFirstSearch(), snapshot.iterativeBreadthFirstSearch());
+    Assert.assertEquals(graph.iterativeDepthFirstSearch(), snapshot.iterativeDepthFirstSearch());
+    Assert.assertEquals(
+        graph.recursiveBreadthFirstSearch(), snapshot.recursiveBreadthFirstSearch());
+    Assert.assertEquals(graph.recursiveDepthFirstSearch(), snapshot.recursiveDepthFirstSearch());
+    Assert.assertEquals(graph.parallelBreadthFirstSearch(), snapshot.parallelBreadthFirstSearch());
+    Assert.assertEquals(graph.directionOptimizingSearch(), snapshot.directionOptimizingSearch());
+  }
+
+  /**
+   * Helper function that collects the rest of an iterator into a list.
+   *
+   * @param iterator The iterator to collect.
+   * @return A list of the elements, in the order the iterator gave them.
+   */
+  private static List<String> toList(Iterator<String> iterator) {
+    List<String> list = new ArrayList<>();
+    iterator.forEachRemaining(list::add);
+    return list;
+  }
+
+  /**
+   * Helper function that creates the edges of an equivalence relation, where two verticies are
+   * related when they leave the same remainder when divided by the number of classes.
+   *
+   * @param size The number of verticies.
+   * @param classCount The number of equivalence classes.
+   * @param verticies The set to add the verticies to.
+   * @return The edges.
+   */
+  private static Set<Edge<String>> equivalenceEdges(
+      int size, int classCount, Set<String> verticies) {
+    Set<Edge<String>> edges = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      verticies.add(String.valueOf(i));
+      for (int j = i % classCount; j < size; j += classCount) {
+        edges.add(new Edge<>(String.valueOf(i), String.valueOf(j)));
+      }
+    }
+    return edges;
+  }
+}
@@ -0,0 +1,188 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Checks the chunks of {@link LinkedList} against a {@link java.util.ArrayList}. */
+public class LinkedListTest {
+  @Test
+  public void addFillsEachChunkBeforeStartingAnother() {
+    LinkedList<Integer> list = new LinkedList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < ChunkNode.CAPACITY * 2 + 1; i++) {
+      list.add(i);
+      expected.add(i);
+    }
+    Assert.assertEquals(3, list.chunkCount());
+    assertSameItems(expected, list);
+  }
+
+  @Test
+  public void insertSplitsFullChunk() {
+    LinkedList<Integer> list = new LinkedList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < ChunkNode.CAPACITY; i++) {
+      list.add(i);
+      expected.add(i);
+    }
+    Assert.assertEquals(1, list.chunkCount());
+
+    // Into the first half of the split chunk
+    list.insert(3, -1);
+    expected.add(3, -1);
+    Assert.assertEquals(2, list.chunkCount());
+    assertSameItems(expected, list);
+
+    // Into the second half, once the first chunk has filled up again
+    for (int i = 0; i < ChunkNode.CAPACITY / 2 - 1; i++) {
+      list.insert(0, -2);
+      expected.add(0, -2);
+    }
+    Assert.assertEquals(2, list.chunkCount());
+    list.insert(ChunkNode.CAPACITY - 2, -3);
+    expected.add(ChunkNode.CAPACITY - 2, -3);
+    Assert.assertEquals(3, list.chunkCount());
+    assertSameItems(expected, list);
+  }
+
+  @Test
+  public void removeDropsEmptyChunk() {
+    LinkedList<Integer> list = new LinkedList<>();
+    for (int i = 0; i <= ChunkNode.CAPACITY; i++) {
+      list.add(i);
+    }
+    Assert.assertEquals(2, list.chunkCount());
+    list.remove(ChunkNode.CAPACITY);
+    Assert.assertEquals(1, list.chunkCount());
+    list.remove(0);
+    Assert.assertEquals(ChunkNode.CAPACITY - 1, list.size());
+  }
+
+  @Test
+  public void removeMergesSmallNeighbours() {
+    LinkedList<Integer> list = new LinkedList<>();
+    List<Integer> expected = new ArrayList<>();
+    int quarter = ChunkNode.CAPACITY / 4;
+    for (int i = 0; i < ChunkNode.CAPACITY + quarter; i++) {
+      list.add(i);
+      expected.add(i);
+    }
+    // The chunks only merge once both together fit in half a chunk
+    while (expected.size() > ChunkNode.CAPACITY / 2 + 1) {
+      list.remove(0);
+      expected.remove(0);
+      Assert.assertEquals(2, list.chunkCount());
+    }
+    list.remove(0);
+    expected.remove(0);
+    Assert.assertEquals(1, list.chunkCount());
+    assertSameItems(expected, list);
+  }
+
+  @Test
+  public void randomChangesMatchArrayList() {
+    Random random = new Random(281);
+    LinkedList<Integer> list = new LinkedList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int step = 0; step < 5_000; step++) {
+      int choice = random.nextInt(4);
+      if (choice == 0 || expected.isEmpty()) {
+        list.add(step);
+        expected.add(step);
+      } else if (choice == 1) {
+        int index = random.nextInt(expected.size() + 1);
+        list.insert(index, step);
+        expected.add(index, step);
+      } else {
+        int index = random.nextInt(expected.size());
+        list.remove(index);
+        expected.remove(index);
+      }
+      if (step % 100 == 0) {
+        assertSameItems(expected, list);
+      }
+    }
+    assertSameItems(expected, list);
+  }
+
+  @Test
+  public void getFollowsCursorInBothDirections() {
+    LinkedList<Integer> list = new LinkedList<>();
+    for (int i = 0; i < ChunkNode.CAPACITY * 10; i++) {
+      list.add(i);
+    }
+    // Start from the middle, so every lookup is closer to the cursor than to either end
+    int middle = list.size() / 2;
+    for (int i = middle; i < middle + ChunkNode.CAPACITY * 3; i++) {
+      Assert.assertEquals(i, (int) list.get(i));
+    }
+    for (int i = middle + ChunkNode.CAPACITY * 3; i > middle - ChunkNode.CAPACITY * 3; i--) {
+      Assert.assertEquals(i, (int) list.get(i));
+    }
+
+    // The cursor must not point into a chunk that a change has moved
+    list.get(middle);
+    list.insert(middle - 1, -1);
+    Assert.assertEquals(middle - 1, (int) list.get(middle));
+    list.remove(middle - 1);
+    Assert.assertEquals(middle, (int) list.get(middle));
+  }
+
+  @Test(expected = ConcurrentModificationException.class)
+  public void iteratorFailsFastAfterAdd() {
+    LinkedList<Integer> list = new LinkedList<>();
+    list.add(0);
+    list.add(1);
+    Iterator<Integer> iterator = list.iterator();
+    iterator.next();
+    list.add(2);
+    iterator.next();
+  }
+
+  @Test(expected = ConcurrentModificationException.class)
+  public void iteratorFailsFastAfterRemove() {
+    LinkedList<Integer> list = new LinkedList<>();
+    list.add(0);
+    list.add(1);
+    Iterator<Integer> iterator = list.iterator();
+    list.remove(1);
+    iterator.next();
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void getPastEndThrows() {
+    LinkedList<Integer> list = new LinkedList<>();
+    list.add(0);
+    list.get(1);
+  }
+
+  /**
+   * Helper function that checks the list holds the expected items, through lookups by index, the
+   * iterator and indexOf.
+   *
+   * @param expected The items the list should hold, in order.
+   * @param list The list to check.
+   */
+  private static void assertSameItems(List<Integer> expected, LinkedList<Integer> list) {
+    Assert.assertEquals(expected.size(), list.size());
+    Assert.assertEquals(expected.isEmpty(), list.isEmpty());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i), list.get(i));
+    }
+    List<Integer> iterated = new ArrayList<>();
+    for (Integer item : list) {
+      iterated.add(item);
+    }
+    Assert.assertEquals(expected, iterated);
+    Assert.assertEquals(expected.toString(), list.toString());
+    if (!expected.isEmpty()) {
+      Integer last = expected.get(expected.size() - 1);
+      Assert.assertEquals(expected.indexOf(last), list.indexOf(last));
+    }
+  }
+}
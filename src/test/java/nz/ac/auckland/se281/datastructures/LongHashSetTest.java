@@ -0,0 +1,62 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Checks {@link LongHashSet} against a {@link java.util.HashSet} of the same values. */
+public class LongHashSetTest {
+  @Test
+  public void randomEdgesMatchHashSet() {
+    Random random = new Random(281);
+    Set<Long> expected = new HashSet<>();
+    LongHashSet set = new LongHashSet(10_000);
+    for (int i = 0; i < 10_000; i++) {
+      long edge = LongHashSet.pack(random.nextInt(1_000), random.nextInt(1_000));
+      Assert.assertEquals(expected.add(edge), set.add(edge));
+    }
+    Assert.assertEquals(expected.size(), set.size());
+    for (int source = 0; source < 1_000; source++) {
+      for (int destination = 0; destination < 1_000; destination += 7) {
+        long edge = LongHashSet.pack(source, destination);
+        Assert.assertEquals(expected.contains(edge), set.contains(edge));
+      }
+    }
+  }
+
+  @Test
+  public void setGrowsPastExpectedSize() {
+    // A set that expects two values starts with four slots, which would fill up without growing
+    LongHashSet set = new LongHashSet(2);
+    for (int i = 0; i < 1_000; i++) {
+      Assert.assertTrue(set.add(LongHashSet.pack(i, i + 1)));
+    }
+    Assert.assertEquals(1_000, set.size());
+    for (int i = 0; i < 1_000; i++) {
+      Assert.assertTrue(set.contains(LongHashSet.pack(i, i + 1)));
+      Assert.assertFalse(set.contains(LongHashSet.pack(i + 1, i)));
+    }
+  }
+
+  @Test
+  public void packKeepsSourceAndDestinationApart() {
+    Assert.assertNotEquals(LongHashSet.pack(0, 1), LongHashSet.pack(1, 0));
+    Assert.assertEquals(1L << 32, LongHashSet.pack(1, 0));
+    long largest = LongHashSet.pack(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    Assert.assertTrue(largest > 0);
+    Assert.assertEquals(Integer.MAX_VALUE, (int) (largest >>> 32));
+    Assert.assertEquals(Integer.MAX_VALUE, (int) largest);
+  }
+
+  @Test
+  public void emptySetContainsNothing() {
+    LongHashSet set = new LongHashSet(0);
+    Assert.assertFalse(set.contains(0));
+    Assert.assertTrue(set.add(0));
+    Assert.assertTrue(set.contains(0));
+    Assert.assertFalse(set.add(0));
+    Assert.assertEquals(1, set.size());
+  }
+}
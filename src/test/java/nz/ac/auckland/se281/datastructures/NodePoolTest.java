@@ -0,0 +1,87 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Checks that a {@link NodePool} stays within its capacity and counts its hits and misses. */
+public class NodePoolTest {
+  @Test
+  public void poolKeepsAtMostItsCapacity() {
+    NodePool<Integer> pool = new NodePool<>(2);
+    List<ChunkNode<Integer>> chunks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      chunks.add(pool.acquire());
+    }
+    for (ChunkNode<Integer> chunk : chunks) {
+      pool.release(chunk);
+    }
+    Assert.assertEquals(2, pool.size());
+    Assert.assertEquals(2, pool.capacity());
+  }
+
+  @Test
+  public void poolCountsHitsAndMisses() {
+    NodePool<Integer> pool = new NodePool<>(1);
+    ChunkNode<Integer> first = pool.acquire();
+    pool.release(first);
+    Assert.assertSame(first, pool.acquire());
+    pool.acquire();
+
+    Assert.assertEquals(1, pool.getHits());
+    Assert.assertEquals(2, pool.getMisses());
+    Assert.assertEquals(0, pool.size());
+  }
+
+  @Test
+  public void releasedChunksAreEmptied() {
+    NodePool<Integer> pool = new NodePool<>(1);
+    ChunkNode<Integer> chunk = pool.acquire();
+    chunk.insert(0, 281);
+    chunk.setPrev(new ChunkNode<>());
+    pool.release(chunk);
+
+    ChunkNode<Integer> recycled = pool.acquire();
+    Assert.assertEquals(0, recycled.getCount());
+    Assert.assertNull(recycled.getNext());
+    Assert.assertNull(recycled.getPrev());
+  }
+
+  @Test
+  public void zeroCapacityPoolNeverRecycles() {
+    NodePool<Integer> pool = new NodePool<>(0);
+    pool.release(pool.acquire());
+    pool.acquire();
+    Assert.assertEquals(0, pool.getHits());
+    Assert.assertEquals(2, pool.getMisses());
+  }
+
+  @Test
+  public void listRecyclesChunksThroughPool() {
+    NodePool<Integer> pool = new NodePool<>(4);
+    LinkedList<Integer> list = new LinkedList<>(pool);
+    for (int i = 0; i < ChunkNode.CAPACITY * 3; i++) {
+      list.add(i);
+    }
+    Assert.assertEquals(3, pool.getMisses());
+    while (!list.isEmpty()) {
+      list.remove(list.size() - 1);
+    }
+    Assert.assertEquals(3, pool.size());
+
+    // Growing again takes every chunk from the pool before allocating any more
+    for (int i = 0; i < ChunkNode.CAPACITY * 4; i++) {
+      list.add(i);
+    }
+    Assert.assertEquals(3, pool.getHits());
+    Assert.assertEquals(4, pool.getMisses());
+    Assert.assertEquals(ChunkNode.CAPACITY * 4, list.size());
+    Assert.assertEquals(0, (int) list.get(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeCapacityIsRejected() {
+    new NodePool<Integer>(-1);
+  }
+}
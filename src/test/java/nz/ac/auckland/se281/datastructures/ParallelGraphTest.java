@@ -0,0 +1,173 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the parallel graph algorithms against their sequential versions. Every graph has more
+ * edges than {@link ParallelEdgeChecks#PARALLEL_THRESHOLD}, and every level or range is wide enough
+ * to be split across the threads of the pool.
+ */
+public class ParallelGraphTest {
+  private static final int SIZE = 20_000;
+  private static final int DEGREE = 4;
+
+  private ForkJoinPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void parallelBreadthFirstSearchFromOneRoot() {
+    CsrGraph<String> graph = randomGraph(SIZE, DEGREE);
+    int[] roots = {0};
+    Assert.assertArrayEquals(
+        graph.iterativeBreadthFirstSearch(roots),
+        ParallelBreadthFirstSearch.search(graph, roots, pool));
+  }
+
+  @Test
+  public void parallelBreadthFirstSearchFromEveryRoot() {
+    CsrGraph<String> graph = randomGraph(SIZE, DEGREE);
+    int[] roots = graph.roots(null);
+    Assert.assertArrayEquals(
+        graph.iterativeBreadthFirstSearch(roots),
+        ParallelBreadthFirstSearch.search(graph, roots, pool));
+  }
+
+  @Test
+  public void parallelEdgeChecksOnRandomGraph() {
+    assertChecksMatch(randomGraph(SIZE, DEGREE));
+  }
+
+  @Test
+  public void parallelEdgeChecksOnSymmetricGraph() {
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new HashSet<>();
+    for (Edge<String> edge : GraphFixtures.randomEdges(SIZE, DEGREE, verticies)) {
+      edges.add(edge);
+      edges.add(new Edge<>(edge.getDestination(), edge.getSource()));
+    }
+    CsrGraph<String> graph = toCsrGraph(verticies, edges);
+    Assert.assertTrue(graph.isSymmetric());
+    assertChecksMatch(graph);
+  }
+
+  @Test
+  public void parallelEdgeChecksOnAntiSymmetricGraph() {
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new HashSet<>();
+    for (Edge<String> edge : GraphFixtures.randomEdges(SIZE, DEGREE, verticies)) {
+      // Every edge points to the larger vertex, so no two verticies have edges both ways
+      int source = Integer.parseInt(edge.getSource());
+      int destination = Integer.parseInt(edge.getDestination());
+      edges.add(
+          new Edge<>(
+              String.valueOf(Math.min(source, destination)),
+              String.valueOf(Math.max(source, destination))));
+    }
+    CsrGraph<String> graph = toCsrGraph(verticies, edges);
+    Assert.assertTrue(graph.isAntiSymmetric());
+    assertChecksMatch(graph);
+  }
+
+  @Test
+  public void concurrentUnionFindMatchesUnionFind() throws Exception {
+    // A sparse graph, so the edges join the verticies into many classes rather than one
+    CsrGraph<String> graph = randomGraph(SIZE * 2, 2);
+    UnionFind sequential = new UnionFind(graph.vertexCount());
+    for (int source = 0; source < graph.vertexCount(); source++) {
+      for (int i = graph.outStart(source); i < graph.outEnd(source); i++) {
+        sequential.union(source, graph.outTarget(i));
+      }
+    }
+    ConcurrentUnionFind concurrent = new ConcurrentUnionFind(graph.vertexCount());
+    // A parallel stream started from a task of the pool runs on the threads of that pool
+    pool.submit(
+            () ->
+                IntStream.range(0, graph.vertexCount())
+                    .parallel()
+                    .forEach(
+                        source -> {
+                          for (int i = graph.outStart(source); i < graph.outEnd(source); i++) {
+                            concurrent.union(source, graph.outTarget(i));
+                          }
+                        }))
+        .get();
+
+    // The concurrent root of every class is its smallest id, so we find the minimum of each class
+    int[] minimums = new int[graph.vertexCount()];
+    for (int id = graph.vertexCount() - 1; id >= 0; id--) {
+      minimums[sequential.find(id)] = id;
+    }
+    for (int id = 0; id < graph.vertexCount(); id++) {
+      Assert.assertEquals(minimums[sequential.find(id)], concurrent.find(id));
+    }
+  }
+
+  /**
+   * Helper function that checks the parallel symmetry and anti-symmetry checks agree with a plain
+   * sequential scan of every edge.
+   *
+   * @param graph The graph to check.
+   */
+  private void assertChecksMatch(CsrGraph<String> graph) {
+    boolean symmetric = true;
+    boolean antiSymmetric = true;
+    for (int source = 0; source < graph.vertexCount(); source++) {
+      for (int i = graph.outStart(source); i < graph.outEnd(source); i++) {
+        int destination = graph.outTarget(i);
+        if (!graph.hasEdge(destination, source)) {
+          symmetric = false;
+        } else if (destination != source) {
+          antiSymmetric = false;
+        }
+      }
+    }
+    Assert.assertEquals(
+        symmetric, ParallelEdgeChecks.holds(graph, ParallelEdgeChecks.Check.SYMMETRY, pool));
+    Assert.assertEquals(
+        antiSymmetric,
+        ParallelEdgeChecks.holds(graph, ParallelEdgeChecks.Check.ANTI_SYMMETRY, pool));
+  }
+
+  /**
+   * Helper function that builds a random graph where every vertex has the given number of out-edges
+   * to random verticies.
+   *
+   * @param size The number of verticies.
+   * @param degree The number of out-edges of each vertex.
+   * @return The graph.
+   */
+  private static CsrGraph<String> randomGraph(int size, int degree) {
+    Set<String> verticies = new HashSet<>();
+    return toCsrGraph(verticies, GraphFixtures.randomEdges(size, degree, verticies));
+  }
+
+  /**
+   * Helper function that indexes a graph on the heap, and checks it is large enough for the
+   * parallel checks to split it.
+   *
+   * @param verticies The verticies of the graph.
+   * @param edges The edges of the graph.
+   * @return The indexed graph.
+   */
+  private static CsrGraph<String> toCsrGraph(Set<String> verticies, Set<Edge<String>> edges) {
+    CsrGraph<String> graph = GraphFixtures.index(verticies, edges);
+    Assert.assertTrue(graph.edgeCount() > ParallelEdgeChecks.PARALLEL_THRESHOLD);
+    return graph;
+  }
+}
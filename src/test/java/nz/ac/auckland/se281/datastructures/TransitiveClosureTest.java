@@ -0,0 +1,126 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks both engines of {@link TransitiveClosure} against a closure found by searching. */
+public class TransitiveClosureTest {
+  private ForkJoinPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void denseClosureMatchesSearch() {
+    // Ten edges per vertex over a hundred verticies is well above the dense threshold
+    assertClosureMatches(randomGraph(100, 10));
+  }
+
+  @Test
+  public void sparseClosureMatchesSearch() {
+    assertClosureMatches(randomGraph(2_000, 1));
+  }
+
+  @Test
+  public void closureOfChainReachesEveryLaterVertex() {
+    int length = 200;
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new HashSet<>();
+    for (int i = 0; i < length; i++) {
+      verticies.add(String.valueOf(i));
+      if (i > 0) {
+        edges.add(new Edge<>(String.valueOf(i - 1), String.valueOf(i)));
+      }
+    }
+    CsrGraph<String> graph = GraphFixtures.index(verticies, edges);
+    Assert.assertEquals((long) length * (length - 1) / 2, TransitiveClosure.edgeCount(graph, pool));
+    assertClosureMatches(graph);
+  }
+
+  @Test
+  public void emptyGraphHasEmptyClosure() {
+    Set<String> verticies = new HashSet<>();
+    verticies.add("0");
+    verticies.add("1");
+    CsrGraph<String> graph = GraphFixtures.index(verticies, new HashSet<>());
+    Assert.assertEquals(0, TransitiveClosure.edgeCount(graph, pool));
+  }
+
+  /**
+   * Helper function that checks every row of the closure, the order the rows arrive in and the
+   * edge count against a breadth first search from every vertex.
+   *
+   * @param graph The graph to close.
+   */
+  private void assertClosureMatches(CsrGraph<String> graph) {
+    long[] expectedCount = new long[1];
+    int[] nextSource = new int[1];
+    TransitiveClosure.forEachRow(
+        graph,
+        pool,
+        (source, rows, offset) -> {
+          Assert.assertEquals(nextSource[0]++, source);
+          boolean[] reachable = reachableFrom(graph, source);
+          for (int destination = 0; destination < graph.vertexCount(); destination++) {
+            boolean inRow = (rows[offset + (destination >>> 6)] & (1L << destination)) != 0;
+            Assert.assertEquals(reachable[destination], inRow);
+            if (reachable[destination]) {
+              expectedCount[0]++;
+            }
+          }
+        });
+    Assert.assertEquals(graph.vertexCount(), nextSource[0]);
+    Assert.assertEquals(expectedCount[0], TransitiveClosure.edgeCount(graph, pool));
+  }
+
+  /**
+   * Helper function that finds the verticies reachable from a source by one or more edges.
+   *
+   * @param graph The graph to search.
+   * @param source The id of the source.
+   * @return Which ids the source reaches.
+   */
+  private static boolean[] reachableFrom(CsrGraph<String> graph, int source) {
+    boolean[] reachable = new boolean[graph.vertexCount()];
+    // The source is queued once to start, and again if it lies on a cycle
+    int[] queue = new int[graph.vertexCount() + 1];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = source;
+    while (head < tail) {
+      int vertex = queue[head++];
+      for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+        int target = graph.outTarget(i);
+        if (!reachable[target]) {
+          reachable[target] = true;
+          queue[tail++] = target;
+        }
+      }
+    }
+    return reachable;
+  }
+
+  /**
+   * Helper function that indexes a random graph.
+   *
+   * @param size The number of verticies.
+   * @param degree The number of out-edges of each vertex.
+   * @return The graph.
+   */
+  private static CsrGraph<String> randomGraph(int size, int degree) {
+    Set<String> verticies = new HashSet<>();
+    return GraphFixtures.index(verticies, GraphFixtures.randomEdges(size, degree, verticies));
+  }
+}
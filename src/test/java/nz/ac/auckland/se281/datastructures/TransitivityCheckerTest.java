@@ -0,0 +1,105 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Checks {@link TransitivityChecker} against the definition of transitivity. */
+public class TransitivityCheckerTest {
+  @Test
+  public void emptyGraphIsTransitive() {
+    Set<String> verticies = new HashSet<>();
+    verticies.add("0");
+    verticies.add("1");
+    CsrGraph<String> graph = GraphFixtures.index(verticies, new HashSet<>());
+    Assert.assertTrue(TransitivityChecker.isTransitive(graph));
+  }
+
+  @Test
+  public void randomGraphsMatchDefinition() {
+    for (int size = 2; size <= 40; size++) {
+      Set<String> verticies = new HashSet<>();
+      CsrGraph<String> graph =
+          GraphFixtures.index(verticies, GraphFixtures.randomEdges(size, 2, verticies));
+      Assert.assertEquals(isTransitiveByDefinition(graph), TransitivityChecker.isTransitive(graph));
+    }
+  }
+
+  @Test
+  public void closuresAreTransitive() {
+    for (int size = 2; size <= 40; size++) {
+      Set<String> verticies = new HashSet<>();
+      CsrGraph<String> random =
+          GraphFixtures.index(verticies, GraphFixtures.randomEdges(size, 1, verticies));
+      CsrGraph<String> closure = GraphFixtures.index(verticies, closureOf(random));
+      Assert.assertTrue(TransitivityChecker.isTransitive(closure));
+      Assert.assertTrue(isTransitiveByDefinition(closure));
+    }
+  }
+
+  @Test
+  public void missingShortcutIsNotTransitive() {
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new HashSet<>();
+    verticies.add("0");
+    verticies.add("1");
+    verticies.add("2");
+    edges.add(new Edge<>("0", "1"));
+    edges.add(new Edge<>("1", "2"));
+    Assert.assertFalse(TransitivityChecker.isTransitive(GraphFixtures.index(verticies, edges)));
+
+    edges.add(new Edge<>("0", "2"));
+    Assert.assertTrue(TransitivityChecker.isTransitive(GraphFixtures.index(verticies, edges)));
+  }
+
+  /**
+   * Helper function that checks every pair of edges from A to B and B to C for an edge from A to C.
+   *
+   * @param graph The graph to check.
+   * @return <code> true </code> if the graph is transitive, <code> false </code> otherwise.
+   */
+  private static boolean isTransitiveByDefinition(CsrGraph<String> graph) {
+    for (int first = 0; first < graph.vertexCount(); first++) {
+      for (int i = graph.outStart(first); i < graph.outEnd(first); i++) {
+        int middle = graph.outTarget(i);
+        for (int j = graph.outStart(middle); j < graph.outEnd(middle); j++) {
+          if (!graph.hasEdge(first, graph.outTarget(j))) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Helper function that finds the edges of the transitive closure of a graph, by searching from
+   * every vertex.
+   *
+   * @param graph The graph to close.
+   * @return The edges of the closure.
+   */
+  private static Set<Edge<String>> closureOf(CsrGraph<String> graph) {
+    Set<Edge<String>> edges = new HashSet<>();
+    for (int source = 0; source < graph.vertexCount(); source++) {
+      // Every vertex reached by one or more edges from the source gets an edge in the closure
+      boolean[] reached = new boolean[graph.vertexCount()];
+      int[] stack = new int[graph.vertexCount()];
+      int size = 0;
+      stack[size++] = source;
+      while (size > 0) {
+        int vertex = stack[--size];
+        for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+          int next = graph.outTarget(i);
+          if (!reached[next]) {
+            reached[next] = true;
+            stack[size++] = next;
+            edges.add(new Edge<>(graph.labelOf(source), graph.labelOf(next)));
+          }
+        }
+      }
+    }
+    return edges;
+  }
+}
@@ -0,0 +1,44 @@
+package nz.ac.auckland.se281.datastructures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Checks that a {@link TraversalContext} is used by one search at a time and stays small. */
+public class TraversalContextTest {
+
+  @Test(expected = IllegalStateException.class)
+  public void beginWhileOpenThrows() {
+    try (TraversalContext context = TraversalContext.begin(10)) {
+      TraversalContext.begin(10);
+    }
+  }
+
+  @Test
+  public void beginAfterCloseReusesContext() {
+    TraversalContext first;
+    try (TraversalContext context = TraversalContext.begin(10)) {
+      first = context;
+    }
+    try (TraversalContext context = TraversalContext.begin(10)) {
+      Assert.assertSame(first, context);
+      Assert.assertFalse(context.isVisited(3));
+    }
+  }
+
+  @Test
+  public void closeDropsLargeBuffers() {
+    TraversalContext large;
+    try (TraversalContext context = TraversalContext.begin(TraversalContext.RETAINED_LENGTH + 1)) {
+      large = context;
+      for (int i = 0; i <= TraversalContext.RETAINED_LENGTH; i++) {
+        context.stack.push(i);
+      }
+    }
+    Assert.assertEquals(0, large.row().length);
+    Assert.assertTrue(large.stack.capacity() <= TraversalContext.RETAINED_LENGTH);
+
+    try (TraversalContext context = TraversalContext.begin(10)) {
+      Assert.assertEquals(10, context.row().length);
+    }
+  }
+}